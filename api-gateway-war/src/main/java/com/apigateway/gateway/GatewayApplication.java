@@ -5,15 +5,18 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 
 /**
  * API网关启动类
+ * 不注册API生成模块的管理接口（API增删改、发布下线），网关只对外提供健康检查
  *
  * @author apigateway
  * @since 1.0.0
  */
 @SpringBootApplication
-@ComponentScan(basePackages = "com.apigateway")
+@ComponentScan(basePackages = "com.apigateway", excludeFilters = @ComponentScan.Filter(
+        type = FilterType.REGEX, pattern = "com\\.apigateway\\.generator\\.controller\\..*"))
 public class GatewayApplication extends SpringBootServletInitializer {
 
     @Override
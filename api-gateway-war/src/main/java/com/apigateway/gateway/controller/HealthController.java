@@ -1,11 +1,14 @@
 package com.apigateway.gateway.controller;
 
 import com.apigateway.common.core.Result;
+import com.apigateway.generator.core.ApiWarmup;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,13 +24,22 @@ import java.util.Map;
 @RequestMapping("/gateway")
 public class HealthController {
 
+    @Autowired
+    private ApiWarmup apiWarmup;
+
     /**
-     * 健康检查接口
+     * 健康检查接口，连接池和预编译语句预热完成前返回503
      */
     @GetMapping("/health")
-    public Result<Map<String, Object>> health() {
+    public Result<Map<String, Object>> health(HttpServletResponse response) {
         Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
+        if (apiWarmup.isReady()) {
+            health.put("status", "UP");
+        } else {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            health.put("status", "OUT_OF_SERVICE");
+        }
+        health.put("warmup", apiWarmup.getState());
         health.put("timestamp", LocalDateTime.now());
         health.put("service", "API Gateway");
         return Result.success(health);
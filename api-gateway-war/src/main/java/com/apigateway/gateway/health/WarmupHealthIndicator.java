@@ -0,0 +1,32 @@
+package com.apigateway.gateway.health;
+
+import com.apigateway.generator.core.ApiWarmup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * API预热健康检查
+ * 连接池和预编译语句预热完成（或超时）前报告 OUT_OF_SERVICE，用于就绪探针
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Component("warmup")
+public class WarmupHealthIndicator extends AbstractHealthIndicator {
+
+    @Autowired
+    private ApiWarmup apiWarmup;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (apiWarmup.isReady()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        builder.withDetail("state", apiWarmup.getState())
+                .withDetail("elapsedMillis", apiWarmup.getElapsedMillis());
+    }
+}
@@ -0,0 +1,476 @@
+package com.apigateway.generator.cache;
+
+import com.alibaba.fastjson2.JSONObject;
+import com.apigateway.common.constant.CacheKey;
+import com.apigateway.generator.config.ApiExecuteProperties;
+import com.apigateway.generator.core.ApiRoute;
+import com.apigateway.generator.entity.ApiExecuteResult;
+import com.apigateway.generator.entity.ApiInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API查询结果缓存
+ * 本地Caffeine一级缓存 + 可选Redis二级缓存（CacheKey.API）。
+ * 本地缓存通过API版本号和表标签版本号失效：API变更或写操作涉及相同表时版本号递增，
+ * 旧条目在读取时判定失效；Redis缓存使用保存在Redis中的共享版本号，条目记录写入时的版本号，
+ * 读取时与当前版本号比较，失效与写入并发时也不会读到旧结果；标签集合仅用于及时释放失效条目。
+ * Redis命中的结果回填本地缓存
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ApiResultCache {
+
+    /**
+     * Redis结果缓存键前缀
+     */
+    private static final String RESULT_KEY = CacheKey.API + "result:";
+
+    /**
+     * Redis表标签键前缀（集合，保存涉及该表的结果缓存键）
+     */
+    private static final String TAG_KEY = CacheKey.API + "tag:";
+
+    /**
+     * Redis API键前缀（集合，保存该API的结果缓存键）
+     */
+    private static final String API_KEYS_KEY = CacheKey.API + "keys:";
+
+    /**
+     * Redis API共享版本号键前缀
+     */
+    private static final String API_GENERATION_KEY = CacheKey.API + "gen:api:";
+
+    /**
+     * Redis表标签共享版本号键前缀
+     */
+    private static final String TABLE_GENERATION_KEY = CacheKey.API + "gen:table:";
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    @Autowired
+    private ObjectProvider<RedisTemplate<String, Object>> redisTemplateProvider;
+
+    /**
+     * 本地缓存
+     */
+    private Cache<String, CachedResult> localCache;
+
+    /**
+     * 分页总数缓存（仅本地）
+     */
+    private Cache<String, CachedCount> countCache;
+
+    /**
+     * API版本号
+     */
+    private final Map<Long, AtomicLong> apiGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * 表标签版本号
+     */
+    private final Map<String, AtomicLong> tableGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * 命中次数
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 未命中次数
+     */
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(apiExecuteProperties.getCache().getMaximumSize())
+                .expireAfter(new Expiry<String, CachedResult>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResult value, long currentTime) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResult value, long currentTime,
+                                                  long currentDuration) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResult value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        countCache = Caffeine.newBuilder()
+                .maximumSize(apiExecuteProperties.getCache().getMaximumSize())
+                .expireAfterWrite(apiExecuteProperties.getPage().getCountCacheTtl(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * API是否开启结果缓存
+     *
+     * @param apiInfo API配置
+     * @return 是否缓存
+     */
+    public static boolean isCacheable(ApiInfo apiInfo) {
+        return apiInfo.getCacheEnabled() != null && apiInfo.getCacheEnabled() == 1
+                && apiInfo.getCacheTtl() != null && apiInfo.getCacheTtl() > 0;
+    }
+
+    /**
+     * 查询缓存
+     *
+     * @param route API路由
+     * @param key 缓存键（见 ApiRequestParams.requestKey）
+     * @return 缓存结果，未命中时返回null
+     */
+    public ApiExecuteResult get(ApiRoute route, String key) {
+        ApiExecuteResult result = lookup(route, key);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    private ApiExecuteResult lookup(ApiRoute route, String key) {
+        CachedResult cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            if (isCurrent(cached.snapshot)) {
+                return cached.result;
+            }
+            localCache.invalidate(key);
+        }
+
+        RedisTemplate<String, Object> redisTemplate = getRedisTemplate();
+        if (redisTemplate == null) {
+            return null;
+        }
+        // 本地版本号在读取Redis前记录，回填后本节点的失效操作同样能淘汰回填的条目
+        Snapshot local = localSnapshot(route);
+        try {
+            // 条目和当前共享版本号一次读取
+            List<String> keys = new ArrayList<>();
+            keys.add(RESULT_KEY + key);
+            keys.addAll(generationKeys(route));
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null || values.get(0) == null) {
+                return null;
+            }
+            JSONObject entry = CachedResultCodec.parse(values.get(0).toString());
+            long[] current = toGenerations(values.subList(1, values.size()));
+            if (!Arrays.equals(CachedResultCodec.generations(entry), current)) {
+                return null;
+            }
+            ApiExecuteResult result = CachedResultCodec.result(entry);
+            long ttlMillis = CachedResultCodec.expireAt(entry) - System.currentTimeMillis();
+            if (ttlMillis > 0 && isCurrent(local)) {
+                localCache.put(key, new CachedResult(result, local, TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+            }
+            return result;
+        } catch (Exception e) {
+            log.warn("读取Redis结果缓存失败：{}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 查询分页总数缓存
+     *
+     * @param key 计数键（见 ApiRequestParams.countKey）
+     * @return 总数，未命中时返回null
+     */
+    public Long getCount(String key) {
+        CachedCount cached = countCache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (!isCurrent(cached.snapshot)) {
+            countCache.invalidate(key);
+            return null;
+        }
+        return cached.count;
+    }
+
+    /**
+     * 写入分页总数缓存，与结果缓存一样按API和表标签失效
+     *
+     * @param key 计数键
+     * @param snapshot 计数前的版本快照
+     * @param count 总数
+     */
+    public void putCount(String key, Snapshot snapshot, long count) {
+        if (isCurrent(snapshot)) {
+            countCache.put(key, new CachedCount(count, snapshot));
+        }
+    }
+
+    /**
+     * 命中次数
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 未命中次数
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 记录查询执行前的版本号，写入缓存时据此判断结果是否已被并发写操作失效
+     *
+     * @param route API路由
+     * @return 版本快照
+     */
+    public Snapshot snapshot(ApiRoute route) {
+        Snapshot snapshot = localSnapshot(route);
+        RedisTemplate<String, Object> redisTemplate = getRedisTemplate();
+        if (redisTemplate != null) {
+            try {
+                snapshot.sharedGenerations = toGenerations(redisTemplate.opsForValue().multiGet(generationKeys(route)));
+            } catch (Exception e) {
+                // 读取不到共享版本号时本次结果不写入Redis
+                log.warn("读取Redis缓存版本号失败：{}", route.getApiId(), e);
+            }
+        }
+        return snapshot;
+    }
+
+    private Snapshot localSnapshot(ApiRoute route) {
+        Set<String> tables = route.getCompiledSql().getTables();
+        String[] tableNames = tables.toArray(new String[0]);
+        long[] generations = new long[tableNames.length];
+        for (int i = 0; i < tableNames.length; i++) {
+            generations[i] = generation(tableGenerations, tableNames[i]).get();
+        }
+        return new Snapshot(route.getApiId(), generation(apiGenerations, route.getApiId()).get(),
+                tableNames, generations);
+    }
+
+    /**
+     * Redis共享版本号键：API版本号在前，其后为各表标签版本号
+     */
+    private static List<String> generationKeys(ApiRoute route) {
+        Set<String> tables = route.getCompiledSql().getTables();
+        List<String> keys = new ArrayList<>(tables.size() + 1);
+        keys.add(API_GENERATION_KEY + route.getApiId());
+        for (String table : tables) {
+            keys.add(TABLE_GENERATION_KEY + table);
+        }
+        return keys;
+    }
+
+    /**
+     * 解析读取到的共享版本号，不存在的版本号为0
+     */
+    private static long[] toGenerations(List<Object> values) {
+        if (values == null) {
+            return null;
+        }
+        long[] generations = new long[values.size()];
+        for (int i = 0; i < generations.length; i++) {
+            Object value = values.get(i);
+            generations[i] = value != null ? Long.parseLong(value.toString()) : 0L;
+        }
+        return generations;
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param route API路由
+     * @param key 缓存键
+     * @param snapshot 执行前的版本快照
+     * @param result 查询结果
+     */
+    public void put(ApiRoute route, String key, Snapshot snapshot, ApiExecuteResult result) {
+        if (result == null || !Boolean.TRUE.equals(result.getSuccess()) || !isCurrent(snapshot)) {
+            return;
+        }
+        int ttlSeconds = route.getApiInfo().getCacheTtl();
+        localCache.put(key, new CachedResult(result, snapshot, TimeUnit.SECONDS.toNanos(ttlSeconds)));
+
+        RedisTemplate<String, Object> redisTemplate = getRedisTemplate();
+        if (redisTemplate == null || snapshot.sharedGenerations == null) {
+            return;
+        }
+        try {
+            String entry = CachedResultCodec.encode(result, snapshot.sharedGenerations,
+                    System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds));
+            redisTemplate.opsForValue().set(RESULT_KEY + key, entry, ttlSeconds, TimeUnit.SECONDS);
+            addToIndex(redisTemplate, API_KEYS_KEY + route.getApiId(), key, ttlSeconds);
+            for (String table : snapshot.tables) {
+                addToIndex(redisTemplate, TAG_KEY + table, key, ttlSeconds);
+            }
+        } catch (Exception e) {
+            log.warn("写入Redis结果缓存失败：{}", key, e);
+        }
+    }
+
+    /**
+     * 失效指定API的全部缓存（API更新、下线时调用）
+     *
+     * @param apiId API ID
+     */
+    public void invalidateApi(Long apiId) {
+        generation(apiGenerations, apiId).incrementAndGet();
+        evictIndex(API_GENERATION_KEY + apiId, API_KEYS_KEY + apiId);
+    }
+
+    /**
+     * 失效涉及指定表的全部缓存（写操作执行后调用）
+     *
+     * @param tables 表名集合
+     */
+    public void invalidateTables(Set<String> tables) {
+        for (String table : tables) {
+            generation(tableGenerations, table).incrementAndGet();
+            evictIndex(TABLE_GENERATION_KEY + table, TAG_KEY + table);
+        }
+    }
+
+    /**
+     * 快照中的版本号是否仍为最新
+     */
+    private boolean isCurrent(Snapshot snapshot) {
+        if (generation(apiGenerations, snapshot.apiId).get() != snapshot.apiGeneration) {
+            return false;
+        }
+        for (int i = 0; i < snapshot.tables.length; i++) {
+            if (generation(tableGenerations, snapshot.tables[i]).get() != snapshot.tableGenerations[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <K> AtomicLong generation(Map<K, AtomicLong> generations, K key) {
+        return generations.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private void addToIndex(RedisTemplate<String, Object> redisTemplate, String indexKey, String key,
+                            int ttlSeconds) {
+        redisTemplate.opsForSet().add(indexKey, key);
+        redisTemplate.expire(indexKey, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 递增Redis共享版本号使已写入的条目失效，并删除索引集合中登记的Redis缓存
+     */
+    private void evictIndex(String generationKey, String indexKey) {
+        RedisTemplate<String, Object> redisTemplate = getRedisTemplate();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().increment(generationKey);
+            Set<Object> keys = redisTemplate.opsForSet().members(indexKey);
+            if (keys != null && !keys.isEmpty()) {
+                Set<String> resultKeys = new TreeSet<>();
+                for (Object key : keys) {
+                    resultKeys.add(RESULT_KEY + key);
+                }
+                redisTemplate.delete(resultKeys);
+            }
+            redisTemplate.delete(indexKey);
+        } catch (Exception e) {
+            log.warn("删除Redis结果缓存失败：{}", indexKey, e);
+        }
+    }
+
+    private RedisTemplate<String, Object> getRedisTemplate() {
+        if (!apiExecuteProperties.getCache().isRedisEnabled()) {
+            return null;
+        }
+        return redisTemplateProvider.getIfAvailable();
+    }
+
+    /**
+     * 版本快照
+     */
+    public static final class Snapshot {
+
+        private final Long apiId;
+
+        private final long apiGeneration;
+
+        private final String[] tables;
+
+        private final long[] tableGenerations;
+
+        /**
+         * Redis共享版本号，未启用Redis或读取失败时为null
+         */
+        private long[] sharedGenerations;
+
+        private Snapshot(Long apiId, long apiGeneration, String[] tables, long[] tableGenerations) {
+            this.apiId = apiId;
+            this.apiGeneration = apiGeneration;
+            this.tables = tables;
+            this.tableGenerations = tableGenerations;
+        }
+    }
+
+    /**
+     * 本地缓存条目
+     */
+    private static final class CachedResult {
+
+        private final ApiExecuteResult result;
+
+        private final Snapshot snapshot;
+
+        private final long ttlNanos;
+
+        private CachedResult(ApiExecuteResult result, Snapshot snapshot, long ttlNanos) {
+            this.result = result;
+            this.snapshot = snapshot;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+
+    /**
+     * 分页总数缓存条目
+     */
+    private static final class CachedCount {
+
+        private final long count;
+
+        private final Snapshot snapshot;
+
+        private CachedCount(long count, Snapshot snapshot) {
+            this.count = count;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.apigateway.generator.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+import com.apigateway.generator.entity.ApiExecuteResult;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis结果缓存条目编解码
+ * 结果中的列值按类型标记编码，命中时还原为查询返回的原始类型（BigDecimal、Long、LocalDateTime等），
+ * 与直接查询的输出保持一致；String、Integer、Boolean 等JSON可无损表示的值原样保存，
+ * 其他值编码为 [类型, 文本] 数组
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+final class CachedResultCodec {
+
+    private static final String GENERATIONS = "generations";
+
+    private static final String EXPIRE_AT = "expireAt";
+
+    private static final String RESULT = "result";
+
+    private static final String DATA = "data";
+
+    private static final String ROWS = "rows";
+
+    private static final String TYPE_LONG = "L";
+
+    private static final String TYPE_SHORT = "H";
+
+    private static final String TYPE_BYTE = "Y";
+
+    private static final String TYPE_DOUBLE = "F";
+
+    private static final String TYPE_FLOAT = "f";
+
+    private static final String TYPE_DECIMAL = "D";
+
+    private static final String TYPE_BIG_INTEGER = "I";
+
+    private static final String TYPE_LOCAL_DATE_TIME = "LDT";
+
+    private static final String TYPE_LOCAL_DATE = "LD";
+
+    private static final String TYPE_LOCAL_TIME = "LT";
+
+    private static final String TYPE_OFFSET_DATE_TIME = "ODT";
+
+    private static final String TYPE_TIMESTAMP = "TS";
+
+    private static final String TYPE_SQL_DATE = "SD";
+
+    private static final String TYPE_SQL_TIME = "ST";
+
+    private static final String TYPE_DATE = "DT";
+
+    private static final String TYPE_BYTES = "B";
+
+    /**
+     * 无法还原类型的值按JSON保存
+     */
+    private static final String TYPE_JSON = "J";
+
+    private CachedResultCodec() {
+    }
+
+    /**
+     * 编码缓存条目
+     *
+     * @param result 查询结果
+     * @param generations 写入时的共享版本号（API版本号在前，其后为各表标签版本号）
+     * @param expireAt 过期时间（毫秒时间戳）
+     * @return 条目文本
+     */
+    static String encode(ApiExecuteResult result, long[] generations, long expireAt) {
+        ApiExecuteResult meta = new ApiExecuteResult();
+        meta.setSuccess(result.getSuccess());
+        meta.setColumns(result.getColumns());
+        meta.setTotal(result.getTotal());
+        meta.setPageNum(result.getPageNum());
+        meta.setPageSize(result.getPageSize());
+        meta.setNextCursor(result.getNextCursor());
+        meta.setExecuteTime(result.getExecuteTime());
+        JSONObject encodedResult = JSON.parseObject(JSON.toJSONString(meta));
+
+        if (result.getData() != null) {
+            JSONArray data = new JSONArray(result.getData().size());
+            for (Map<String, Object> row : result.getData()) {
+                JSONObject encodedRow = new JSONObject(row.size());
+                for (Map.Entry<String, Object> entry : row.entrySet()) {
+                    encodedRow.put(entry.getKey(), encodeValue(entry.getValue()));
+                }
+                data.add(encodedRow);
+            }
+            encodedResult.put(DATA, data);
+        }
+        if (result.getRows() != null) {
+            JSONArray rows = new JSONArray(result.getRows().size());
+            for (Object[] row : result.getRows()) {
+                JSONArray encodedRow = new JSONArray(row.length);
+                for (Object value : row) {
+                    encodedRow.add(encodeValue(value));
+                }
+                rows.add(encodedRow);
+            }
+            encodedResult.put(ROWS, rows);
+        }
+
+        JSONObject entry = new JSONObject();
+        entry.put(GENERATIONS, generations);
+        entry.put(EXPIRE_AT, expireAt);
+        entry.put(RESULT, encodedResult);
+        // 保留值为null的列，命中时的列集合与直接查询一致
+        return entry.toJSONString(JSONWriter.Feature.WriteMapNullValue);
+    }
+
+    /**
+     * 解析缓存条目
+     *
+     * @param text 条目文本
+     * @return 条目
+     */
+    static JSONObject parse(String text) {
+        return JSON.parseObject(text);
+    }
+
+    /**
+     * 条目写入时的共享版本号
+     */
+    static long[] generations(JSONObject entry) {
+        JSONArray array = entry.getJSONArray(GENERATIONS);
+        if (array == null) {
+            return null;
+        }
+        long[] generations = new long[array.size()];
+        for (int i = 0; i < generations.length; i++) {
+            generations[i] = array.getLongValue(i);
+        }
+        return generations;
+    }
+
+    /**
+     * 条目过期时间（毫秒时间戳）
+     */
+    static long expireAt(JSONObject entry) {
+        return entry.getLongValue(EXPIRE_AT);
+    }
+
+    /**
+     * 还原条目中的查询结果
+     */
+    static ApiExecuteResult result(JSONObject entry) {
+        JSONObject encodedResult = entry.getJSONObject(RESULT);
+        JSONArray data = (JSONArray) encodedResult.remove(DATA);
+        JSONArray rows = (JSONArray) encodedResult.remove(ROWS);
+        ApiExecuteResult result = encodedResult.toJavaObject(ApiExecuteResult.class);
+
+        if (data != null) {
+            List<Map<String, Object>> resultList = new ArrayList<>(data.size());
+            for (int i = 0; i < data.size(); i++) {
+                JSONObject encodedRow = data.getJSONObject(i);
+                Map<String, Object> row = new LinkedHashMap<>(encodedRow.size() * 2);
+                for (Map.Entry<String, Object> column : encodedRow.entrySet()) {
+                    row.put(column.getKey(), decodeValue(column.getValue()));
+                }
+                resultList.add(row);
+            }
+            result.setData(resultList);
+        }
+        if (rows != null) {
+            List<Object[]> resultRows = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                JSONArray encodedRow = rows.getJSONArray(i);
+                Object[] row = new Object[encodedRow.size()];
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = decodeValue(encodedRow.get(j));
+                }
+                resultRows.add(row);
+            }
+            result.setRows(resultRows);
+        }
+        return result;
+    }
+
+    private static Object encodeValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Integer || value instanceof Boolean) {
+            return value;
+        }
+        String type;
+        String text;
+        if (value instanceof Long) {
+            type = TYPE_LONG;
+            text = value.toString();
+        } else if (value instanceof Short) {
+            type = TYPE_SHORT;
+            text = value.toString();
+        } else if (value instanceof Byte) {
+            type = TYPE_BYTE;
+            text = value.toString();
+        } else if (value instanceof Double) {
+            type = TYPE_DOUBLE;
+            text = value.toString();
+        } else if (value instanceof Float) {
+            type = TYPE_FLOAT;
+            text = value.toString();
+        } else if (value instanceof BigDecimal) {
+            type = TYPE_DECIMAL;
+            text = value.toString();
+        } else if (value instanceof BigInteger) {
+            type = TYPE_BIG_INTEGER;
+            text = value.toString();
+        } else if (value instanceof LocalDateTime) {
+            type = TYPE_LOCAL_DATE_TIME;
+            text = value.toString();
+        } else if (value instanceof LocalDate) {
+            type = TYPE_LOCAL_DATE;
+            text = value.toString();
+        } else if (value instanceof LocalTime) {
+            type = TYPE_LOCAL_TIME;
+            text = value.toString();
+        } else if (value instanceof OffsetDateTime) {
+            type = TYPE_OFFSET_DATE_TIME;
+            text = value.toString();
+        } else if (value instanceof Timestamp) {
+            type = TYPE_TIMESTAMP;
+            text = value.toString();
+        } else if (value instanceof java.sql.Date) {
+            type = TYPE_SQL_DATE;
+            text = value.toString();
+        } else if (value instanceof Time) {
+            type = TYPE_SQL_TIME;
+            text = value.toString();
+        } else if (value instanceof Date) {
+            type = TYPE_DATE;
+            text = String.valueOf(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            type = TYPE_BYTES;
+            text = Base64.getEncoder().encodeToString((byte[]) value);
+        } else {
+            type = TYPE_JSON;
+            text = JSON.toJSONString(value);
+        }
+        JSONArray typed = new JSONArray(2);
+        typed.add(type);
+        typed.add(text);
+        return typed;
+    }
+
+    private static Object decodeValue(Object value) {
+        if (!(value instanceof JSONArray)) {
+            return value;
+        }
+        JSONArray typed = (JSONArray) value;
+        String type = typed.getString(0);
+        String text = typed.getString(1);
+        switch (type) {
+            case TYPE_LONG:
+                return Long.valueOf(text);
+            case TYPE_SHORT:
+                return Short.valueOf(text);
+            case TYPE_BYTE:
+                return Byte.valueOf(text);
+            case TYPE_DOUBLE:
+                return Double.valueOf(text);
+            case TYPE_FLOAT:
+                return Float.valueOf(text);
+            case TYPE_DECIMAL:
+                return new BigDecimal(text);
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(text);
+            case TYPE_LOCAL_DATE_TIME:
+                return LocalDateTime.parse(text);
+            case TYPE_LOCAL_DATE:
+                return LocalDate.parse(text);
+            case TYPE_LOCAL_TIME:
+                return LocalTime.parse(text);
+            case TYPE_OFFSET_DATE_TIME:
+                return OffsetDateTime.parse(text);
+            case TYPE_TIMESTAMP:
+                return Timestamp.valueOf(text);
+            case TYPE_SQL_DATE:
+                return java.sql.Date.valueOf(text);
+            case TYPE_SQL_TIME:
+                return Time.valueOf(text);
+            case TYPE_DATE:
+                return new Date(Long.parseLong(text));
+            case TYPE_BYTES:
+                return Base64.getDecoder().decode(text);
+            case TYPE_JSON:
+                return JSON.parse(text);
+            default:
+                throw new IllegalArgumentException("unknown cached value type: " + type);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.apigateway.generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * API执行配置
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "api.execute")
+public class ApiExecuteProperties {
+
+    /**
+     * 流式查询每次从数据库拉取的行数
+     * MySQL需开启 useCursorFetch 才会按批拉取，否则驱动会缓存整个结果集
+     */
+    private int streamFetchSize = 1000;
+
+    /**
+     * 默认查询超时时间(秒)，API未单独配置时使用，0表示不限制
+     */
+    private int defaultQueryTimeout = 30;
+
+    /**
+     * 默认最大返回行数，API未单独配置时使用，0表示不限制
+     */
+    private int defaultMaxRows = 0;
+
+    /**
+     * 结果缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 异步执行舱壁配置
+     */
+    private Bulkhead bulkhead = new Bulkhead();
+
+    /**
+     * 分页下推配置
+     */
+    private Page page = new Page();
+
+    /**
+     * 批量写入配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 对冲读取配置
+     */
+    private Hedge hedge = new Hedge();
+
+    /**
+     * 熔断配置
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * 数据源自适应并发限制配置
+     */
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    /**
+     * 连接池和预编译语句预热配置
+     */
+    private Warmup warmup = new Warmup();
+
+    /**
+     * 连接借用/持有统计和泄漏检测配置
+     */
+    private ConnectionTracking connectionTracking = new ConnectionTracking();
+
+    /**
+     * 组合执行单次最多API调用数
+     */
+    private int compositeMaxCalls = 20;
+
+    @Data
+    public static class Cache {
+
+        /**
+         * 本地缓存最大条目数
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * 是否启用Redis二级缓存
+         */
+        private boolean redisEnabled = false;
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * 是否异步执行（释放Tomcat线程），关闭时在请求线程同步执行
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每个数据源的执行线程数
+         */
+        private int threads = 20;
+
+        /**
+         * 每个数据源的等待队列容量，队列满时直接返回503
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * 异步请求超时时间(毫秒)
+         */
+        private long timeout = 60000;
+    }
+
+    @Data
+    public static class Page {
+
+        /**
+         * 每页最大行数，超出时按最大值分页
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * 总数缓存时间(秒)，同一查询条件翻页时复用总数
+         */
+        private int countCacheTtl = 60;
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * 单次请求最多参数组数
+         */
+        private int maxItems = 10000;
+
+        /**
+         * 每次 executeBatch 提交的参数组数
+         */
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class Hedge {
+
+        /**
+         * 首个读库超过该API延迟的百分位仍未返回时发起对冲请求
+         */
+        private double percentile = 95;
+
+        /**
+         * 对冲等待时间下限(毫秒)
+         */
+        private long minDelay = 10;
+
+        /**
+         * 延迟样本不足该数量时不对冲
+         */
+        private int minSamples = 100;
+
+        /**
+         * 每个API保留的最近延迟样本数
+         */
+        private int windowSize = 1000;
+
+        /**
+         * 对冲预算：每个请求积累的对冲额度，即对冲请求占比上限
+         */
+        private double budgetRatio = 0.05;
+
+        /**
+         * 对冲预算最多积累的额度，限制突发对冲数
+         */
+        private int budgetBurst = 10;
+
+        /**
+         * 对冲请求执行线程数，线程占满时不再对冲
+         */
+        private int threads = 10;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+
+        /**
+         * 是否开启数据源和API熔断
+         */
+        private boolean enabled = true;
+
+        /**
+         * 滑动窗口大小（最近调用次数）
+         */
+        private int windowSize = 50;
+
+        /**
+         * 窗口内调用数达到该值后才计算失败率
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * 失败率阈值(%)，达到后熔断
+         */
+        private double failureRateThreshold = 50;
+
+        /**
+         * 慢调用耗时阈值(毫秒)
+         */
+        private long slowCallMillis = 5000;
+
+        /**
+         * 慢调用率阈值(%)，达到后熔断
+         */
+        private double slowCallRateThreshold = 80;
+
+        /**
+         * 熔断持续时间(毫秒)，之后进入半开状态
+         */
+        private long openMillis = 30000;
+
+        /**
+         * 半开状态放行的试探调用数
+         */
+        private int halfOpenCalls = 3;
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+
+        /**
+         * 是否开启数据源自适应并发限制
+         */
+        private boolean enabled = true;
+
+        /**
+         * 初始并发上限
+         */
+        private int initialLimit = 20;
+
+        /**
+         * 并发上限下限
+         */
+        private int minLimit = 2;
+
+        /**
+         * 并发上限上限
+         */
+        private int maxLimit = 200;
+
+        /**
+         * 每个采样窗口的样本数，按窗口平均RTT调整上限
+         */
+        private int windowSamples = 20;
+
+        /**
+         * 每隔多少个样本重新测量最小RTT
+         */
+        private int probeInterval = 1000;
+    }
+
+    @Data
+    public static class Warmup {
+
+        /**
+         * 是否在启动和发布API时预热，预热完成前健康检查报告未就绪
+         */
+        private boolean enabled = true;
+
+        /**
+         * 启动预热超时时间(毫秒)，超时后报告就绪，剩余预热在后台继续
+         */
+        private long timeout = 60000;
+
+        /**
+         * 预热线程数，按数据源连接池并行
+         */
+        private int threads = 4;
+    }
+
+    @Data
+    public static class ConnectionTracking {
+
+        /**
+         * 是否按API统计连接借用等待时间、持有时间和当前持有数
+         */
+        private boolean enabled = true;
+
+        /**
+         * 连接持有超过该时间(毫秒)视为疑似泄漏，记录借出时的调用堆栈；大于0时每次借用都记录堆栈
+         */
+        private long leakThreshold = 30000;
+
+        /**
+         * 保留的最近泄漏记录数
+         */
+        private int maxLeakRecords = 50;
+
+        /**
+         * 泄漏记录的堆栈最大深度
+         */
+        private int stackDepth = 40;
+    }
+}
@@ -1,7 +1,12 @@
 package com.apigateway.generator.controller;
 
+import com.apigateway.common.core.CursorPage;
 import com.apigateway.common.core.PageResult;
+import com.apigateway.common.constant.ResponseCode;
 import com.apigateway.common.core.Result;
+import com.apigateway.generator.config.ApiExecuteProperties;
+import com.apigateway.generator.entity.ApiCall;
+import com.apigateway.generator.entity.ApiCallResult;
 import com.apigateway.generator.entity.ApiExecuteResult;
 import com.apigateway.generator.entity.ApiInfo;
 import com.apigateway.generator.service.IApiGeneratorService;
@@ -12,8 +17,14 @@ import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * API生成管理控制器
@@ -27,29 +38,129 @@ import java.util.Map;
 @Api(tags = "API管理")
 public class ApiController {
 
+    /**
+     * 执行API路径前缀
+     */
+    private static final String EXECUTE_PREFIX = "/api/apis/execute";
+
+    /**
+     * 批量执行API路径前缀
+     */
+    private static final String BATCH_PREFIX = "/api/apis/batch";
+
+    /**
+     * 流式执行API路径前缀
+     */
+    private static final String STREAM_PREFIX = "/api/apis/stream";
+
     @Autowired
     private IApiGeneratorService apiGeneratorService;
 
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
     /**
      * 执行API（网关转发）
+     * SQL在数据源独立线程池中异步执行，Tomcat线程立即释放
      */
     @PostMapping("/execute/**")
     @ApiOperation("执行API")
-    public Result<ApiExecuteResult> executeApi(
-            @RequestParam Map<String, Object> params) {
+    public DeferredResult<Result<ApiExecuteResult>> executeApi(
+            @RequestParam Map<String, Object> params,
+            HttpServletResponse response) {
         // 提取路径
-        String path = extractPath();
+        String path = extractPath(EXECUTE_PREFIX);
+
+        DeferredResult<Result<ApiExecuteResult>> deferred =
+                new DeferredResult<>(apiExecuteProperties.getBulkhead().getTimeout());
 
         // 默认POST方法
-        ApiExecuteResult result = apiGeneratorService.executeApi(path, "POST", params);
+        CompletableFuture<ApiExecuteResult> future;
+        try {
+            future = apiGeneratorService.executeApiAsync(path, "POST", params);
+        } catch (RejectedExecutionException e) {
+            log.warn("API执行线程池已满，拒绝请求：{}", path);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            deferred.setResult(Result.error(ResponseCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试"));
+            return deferred;
+        }
+
+        // 超时或客户端断开时取消任务：尚在排队的不再执行，执行中的语句随之取消
+        deferred.onTimeout(() -> {
+            future.cancel(false);
+            deferred.setResult(Result.error("API执行超时"));
+        });
+        deferred.onError(e -> future.cancel(false));
+
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("执行API失败：{}", path, e);
+                deferred.setResult(Result.error("API执行失败"));
+            } else if (result.getSuccess()) {
+                deferred.setResult(Result.success(result));
+            } else {
+                if (!deferred.isSetOrExpired()) {
+                    setUnavailableStatus(response, result);
+                }
+                deferred.setResult(Result.error(errorCode(result), result.getErrorMessage()));
+            }
+        });
+        return deferred;
+    }
 
+    /**
+     * 组合执行API（一次请求并行执行多个API，按调用顺序返回各自的状态和耗时）
+     */
+    @PostMapping("/composite")
+    @ApiOperation("组合执行API")
+    public DeferredResult<Result<List<ApiCallResult>>> executeApiComposite(@RequestBody List<ApiCall> calls) {
+        DeferredResult<Result<List<ApiCallResult>>> deferred =
+                new DeferredResult<>(apiExecuteProperties.getBulkhead().getTimeout());
+        deferred.onTimeout(() -> deferred.setResult(Result.error("API执行超时")));
+
+        apiGeneratorService.executeApiComposite(calls).whenComplete((results, e) -> {
+            if (e != null) {
+                log.error("组合执行API失败", e);
+                deferred.setResult(Result.error("API执行失败"));
+            } else {
+                deferred.setResult(Result.success(results));
+            }
+        });
+        return deferred;
+    }
+
+    /**
+     * 批量执行API（写操作，请求体为参数组数组，一个事务内执行）
+     */
+    @PostMapping("/batch/**")
+    @ApiOperation("批量执行API")
+    public Result<ApiExecuteResult> executeApiBatch(@RequestBody List<Map<String, Object>> items,
+                                                    HttpServletResponse response) {
+        String path = extractPath(BATCH_PREFIX);
+
+        ApiExecuteResult result = apiGeneratorService.executeApiBatch(path, "POST", items);
         if (result.getSuccess()) {
             return Result.success(result);
         } else {
-            return Result.error(result.getErrorMessage());
+            setUnavailableStatus(response, result);
+            return Result.error(errorCode(result), result.getErrorMessage());
         }
     }
 
+    /**
+     * 流式执行API（查询结果逐行输出，适用于大结果集）
+     */
+    @PostMapping("/stream/**")
+    @ApiOperation("流式执行API")
+    public void executeApiStream(
+            @RequestParam Map<String, Object> params,
+            HttpServletResponse response) throws IOException {
+        String path = extractPath(STREAM_PREFIX);
+
+        response.setContentType("application/json;charset=UTF-8");
+        apiGeneratorService.executeApiStream(path, "POST", params, response.getOutputStream());
+    }
+
     /**
      * 分页查询API列表
      */
@@ -71,6 +182,19 @@ public class ApiController {
         return Result.success(result);
     }
 
+    /**
+     * 游标分页查询API列表（深分页）
+     */
+    @GetMapping("/scroll")
+    @ApiOperation("游标分页查询API列表")
+    public Result<CursorPage<ApiInfo>> scrollApis(
+            @ApiParam("游标，首页不传") @RequestParam(required = false) String cursor,
+            @ApiParam("每页大小") @RequestParam(defaultValue = "10") Integer pageSize,
+            @ApiParam("状态") @RequestParam(required = false) Integer status,
+            @ApiParam("API名称") @RequestParam(required = false) String apiName) {
+        return Result.success(apiGeneratorService.scrollApis(cursor, pageSize, status, apiName));
+    }
+
     /**
      * 根据ID查询API
      */
@@ -134,10 +258,26 @@ public class ApiController {
         return success ? Result.success("下线成功") : Result.error("下线失败");
     }
 
+    /**
+     * 执行失败的错误码，未指定时为500
+     */
+    private static Integer errorCode(ApiExecuteResult result) {
+        return result.getErrorCode() != null ? result.getErrorCode() : ResponseCode.ERROR;
+    }
+
+    /**
+     * 熔断、并发限制拒绝与线程池满拒绝一样返回HTTP 503，便于负载均衡和客户端按状态码退避重试
+     */
+    private static void setUnavailableStatus(HttpServletResponse response, ApiExecuteResult result) {
+        if (ResponseCode.SERVICE_UNAVAILABLE.equals(result.getErrorCode())) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+
     /**
      * 提取请求路径
      */
-    private String extractPath() {
+    private String extractPath(String prefix) {
         // 从RequestContextHolder获取请求路径
         org.springframework.web.context.request.RequestAttributes attrs =
             org.springframework.web.context.request.RequestContextHolder.getRequestAttributes();
@@ -145,8 +285,8 @@ public class ApiController {
             javax.servlet.http.HttpServletRequest request =
                 ((org.springframework.web.context.request.ServletRequestAttributes) attrs).getRequest();
             String uri = request.getRequestURI();
-            // 移除 /api/apis/execute 前缀
-            return uri.substring("/api/apis/execute".length());
+            // 移除执行路径前缀
+            return uri.substring(prefix.length());
         }
         return "/";
     }
@@ -0,0 +1,171 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.generator.config.ApiExecuteProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制（TCP Vegas 算法）
+ * 以无负载时的最小RTT为基准，按采样窗口的平均RTT估算数据库端排队长度：排队少时增大并发上限，排队多时减小，
+ * 超出上限的请求直接拒绝，过载时保持吞吐而不是把压力转为连接池等待
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class AdaptiveLimiter {
+
+    private final String name;
+
+    private final ApiExecuteProperties.ConcurrencyLimit config;
+
+    /**
+     * 当前并发上限
+     */
+    private volatile double limit;
+
+    /**
+     * 执行中的请求数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 无负载RTT估计（最小RTT，纳秒），0表示尚无样本
+     */
+    private long minRtt;
+
+    /**
+     * 距上次重置最小RTT的样本数
+     */
+    private int samplesSinceProbe;
+
+    /**
+     * 当前采样窗口的RTT总和(纳秒)
+     */
+    private long windowRttSum;
+
+    /**
+     * 当前采样窗口的样本数
+     */
+    private int windowSamples;
+
+    /**
+     * 当前采样窗口内的最大执行数
+     */
+    private int windowMaxInFlight;
+
+    /**
+     * 被拒绝的请求数
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveLimiter(String name, ApiExecuteProperties.ConcurrencyLimit config) {
+        this.name = name;
+        this.config = config;
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * 申请执行许可
+     *
+     * @return 当前执行数未达上限时返回true，之后须调用 onSample 或 release
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放许可，不记录样本（执行失败时）
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 释放许可并按本次RTT调整并发上限
+     *
+     * @param rttNanos 执行耗时(纳秒)
+     */
+    public void onSample(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        if (rttNanos > 0) {
+            update(rttNanos, current);
+        }
+    }
+
+    private synchronized void update(long rtt, int current) {
+        // 定期重置最小RTT，适应数据量和执行计划的变化
+        if (++samplesSinceProbe >= config.getProbeInterval()) {
+            samplesSinceProbe = 0;
+            minRtt = 0;
+        }
+        if (minRtt == 0 || rtt < minRtt) {
+            minRtt = rtt;
+        }
+
+        // 单个样本受插队、缓存命中等影响波动大，按窗口平均RTT调整
+        windowRttSum += rtt;
+        windowMaxInFlight = Math.max(windowMaxInFlight, current);
+        if (++windowSamples < config.getWindowSamples()) {
+            return;
+        }
+        long avgRtt = windowRttSum / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        // 并发远未用满时，RTT反映不出上限是否合适
+        if (maxInFlight * 2 < limit) {
+            return;
+        }
+
+        double estimated = limit;
+        double log = Math.max(1, Math.log10(estimated));
+        double queueSize = Math.ceil(estimated * (1 - (double) minRtt / avgRtt));
+        double alpha = 3 * log;
+        double beta = 6 * log;
+        if (queueSize <= log) {
+            estimated += beta;
+        } else if (queueSize < alpha) {
+            estimated += log;
+        } else if (queueSize > beta) {
+            estimated -= log;
+        } else {
+            return;
+        }
+        limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), estimated));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 最小RTT(毫秒)
+     */
+    public synchronized double getMinRttMillis() {
+        return minRtt / 1_000_000.0;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,89 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.constant.ResponseCode;
+import com.apigateway.common.exception.BusinessException;
+import com.apigateway.generator.config.ApiExecuteProperties;
+import com.apigateway.generator.entity.ConcurrencyLimitStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据源自适应并发限制注册表
+ * 每个数据源一个限制器，位于连接池之前，超过当前并发上限的请求直接返回503
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Component
+public class AdaptiveLimiterRegistry {
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    /**
+     * 数据源名称 -> 限制器
+     */
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * 在数据源并发限制下执行数据库操作
+     * 只有成功的执行参与调整上限，失败的执行只释放许可
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @param call 数据库操作
+     * @return 执行结果
+     * @throws BusinessException 超过并发上限时抛出，错误码503
+     */
+    public <V> V execute(Long datasourceId, Callable<V> call) throws Exception {
+        if (!apiExecuteProperties.getConcurrencyLimit().isEnabled()) {
+            return call.call();
+        }
+        AdaptiveLimiter limiter = limiters.computeIfAbsent(name(datasourceId),
+                k -> new AdaptiveLimiter(k, apiExecuteProperties.getConcurrencyLimit()));
+        if (!limiter.tryAcquire()) {
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "数据源繁忙，请稍后重试");
+        }
+
+        long startTime = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            V result = call.call();
+            succeeded = true;
+            return result;
+        } finally {
+            if (succeeded) {
+                limiter.onSample(System.nanoTime() - startTime);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * 获取全部数据源的并发限制状态
+     */
+    public List<ConcurrencyLimitStatus> getStatuses() {
+        List<ConcurrencyLimitStatus> statuses = new ArrayList<>(limiters.size());
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            ConcurrencyLimitStatus status = new ConcurrencyLimitStatus();
+            status.setName(limiter.getName());
+            status.setLimit(limiter.getLimit());
+            status.setInFlight(limiter.getInFlight());
+            status.setMinRttMillis(limiter.getMinRttMillis());
+            status.setRejected(limiter.getRejected());
+            statuses.add(status);
+        }
+        statuses.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return statuses;
+    }
+
+    private static String name(Long datasourceId) {
+        return "datasource:" + (datasourceId != null ? datasourceId : "primary");
+    }
+}
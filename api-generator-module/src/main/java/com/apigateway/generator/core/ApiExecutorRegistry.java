@@ -0,0 +1,115 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.generator.config.ApiExecuteProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API执行线程池注册表（舱壁隔离）
+ * 每个数据源使用独立的有界线程池和队列，慢数据源只会占满自己的线程池
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ApiExecutorRegistry {
+
+    /**
+     * 主数据源对应的线程池键
+     */
+    private static final long PRIMARY_KEY = 0L;
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    /**
+     * 数据源ID -> 线程池
+     */
+    private final Map<Long, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+    /**
+     * 队列满被拒绝的任务数
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 获取数据源对应的执行器，提交的任务在队列满时抛出 RejectedExecutionException
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @return 执行器
+     */
+    public Executor getExecutor(Long datasourceId) {
+        long key = datasourceId != null ? datasourceId : PRIMARY_KEY;
+        ThreadPoolExecutor executor = executors.computeIfAbsent(key, this::createExecutor);
+        return command -> {
+            try {
+                executor.execute(command);
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw e;
+            }
+        };
+    }
+
+    private ThreadPoolExecutor createExecutor(Long key) {
+        ApiExecuteProperties.Bulkhead bulkhead = apiExecuteProperties.getBulkhead();
+        String name = key == PRIMARY_KEY ? "primary" : "ds" + key;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                bulkhead.getThreads(), bulkhead.getThreads(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(bulkhead.getQueueCapacity()),
+                new CustomizableThreadFactory("api-exec-" + name + "-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        log.info("创建API执行线程池：{}，线程数：{}，队列容量：{}",
+                name, bulkhead.getThreads(), bulkhead.getQueueCapacity());
+        return executor;
+    }
+
+    /**
+     * 被拒绝的任务数
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * 当前执行中的任务数
+     */
+    public int getActiveCount() {
+        int active = 0;
+        for (ThreadPoolExecutor executor : executors.values()) {
+            active += executor.getActiveCount();
+        }
+        return active;
+    }
+
+    /**
+     * 当前排队的任务数
+     */
+    public int getQueuedCount() {
+        int queued = 0;
+        for (ThreadPoolExecutor executor : executors.values()) {
+            queued += executor.getQueue().size();
+        }
+        return queued;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+}
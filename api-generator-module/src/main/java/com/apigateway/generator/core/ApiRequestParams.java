@@ -0,0 +1,116 @@
+package com.apigateway.generator.core;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * API执行保留参数
+ * 以下划线开头的参数用于控制执行方式，不参与SQL参数绑定
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class ApiRequestParams {
+
+    /**
+     * 响应格式
+     */
+    public static final String FORMAT = "_format";
+
+    /**
+     * 紧凑格式：列名数组 + 行数组
+     */
+    public static final String FORMAT_COMPACT = "compact";
+
+    /**
+     * 页码（分页下推）
+     */
+    public static final String PAGE_NUM = "pageNum";
+
+    /**
+     * 每页大小（分页下推）
+     */
+    public static final String PAGE_SIZE = "pageSize";
+
+    /**
+     * 是否返回总数，默认返回，传 false 跳过计数查询
+     */
+    public static final String COUNT = "_count";
+
+    /**
+     * 游标（键集分页，上一页返回的 nextCursor）
+     */
+    public static final String CURSOR = "_cursor";
+
+    private ApiRequestParams() {
+    }
+
+    /**
+     * 是否请求紧凑格式
+     *
+     * @param params 请求参数
+     * @return 是否紧凑格式
+     */
+    public static boolean isCompact(Map<String, Object> params) {
+        Object format = params != null ? params.get(FORMAT) : null;
+        return format != null && FORMAT_COMPACT.equalsIgnoreCase(format.toString());
+    }
+
+    /**
+     * 构建请求键：API ID + 归一化参数摘要，用于结果缓存和请求合并
+     * 只取SQL引用的参数并按名称排序，未引用的参数不影响结果
+     *
+     * @param route API路由
+     * @param params 请求参数
+     * @return 请求键
+     */
+    public static String requestKey(ApiRoute route, Map<String, Object> params) {
+        StringBuilder normalized = normalizeSqlParams(route, params);
+        appendParam(normalized, FORMAT, isCompact(params));
+        appendParam(normalized, PAGE_NUM, params != null ? params.get(PAGE_NUM) : null);
+        appendParam(normalized, PAGE_SIZE, params != null ? params.get(PAGE_SIZE) : null);
+        appendParam(normalized, COUNT, params != null ? params.get(COUNT) : null);
+        appendParam(normalized, CURSOR, params != null ? params.get(CURSOR) : null);
+        return route.getApiId() + ":" + digest(normalized);
+    }
+
+    /**
+     * 构建计数键：只取SQL引用的参数，同一条件的各页共用一个总数
+     *
+     * @param route API路由
+     * @param params 请求参数
+     * @return 计数键
+     */
+    public static String countKey(ApiRoute route, Map<String, Object> params) {
+        return route.getApiId() + ":count:" + digest(normalizeSqlParams(route, params));
+    }
+
+    private static StringBuilder normalizeSqlParams(ApiRoute route, Map<String, Object> params) {
+        StringBuilder normalized = new StringBuilder();
+        for (String name : new TreeSet<>(route.getCompiledSql().getParamNameList())) {
+            appendParam(normalized, name, params != null ? params.get(name) : null);
+        }
+        return normalized;
+    }
+
+    private static String digest(StringBuilder normalized) {
+        return DigestUtils.md5DigestAsHex(normalized.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 追加参数，值带长度前缀避免拼接歧义
+     */
+    private static void appendParam(StringBuilder normalized, String name, Object value) {
+        normalized.append(name).append('=');
+        if (value == null) {
+            normalized.append('-');
+        } else {
+            String text = value.toString();
+            normalized.append(text.length()).append(':').append(text);
+        }
+        normalized.append('&');
+    }
+}
@@ -0,0 +1,72 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.datasource.core.DatabaseType;
+import com.apigateway.generator.entity.ApiInfo;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 已发布API路由
+ * 路由表中的不可变条目，发布后不再修改；方言分页SQL首次分页查询时生成并缓存
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Getter
+public final class ApiRoute {
+
+    /**
+     * 路由键（方法 + 路径）
+     */
+    private final String key;
+
+    /**
+     * API配置
+     */
+    private final ApiInfo apiInfo;
+
+    /**
+     * 编译后的SQL模板
+     */
+    private final CompiledSql compiledSql;
+
+    /**
+     * 键集分页SQL，未配置游标排序键时为null
+     */
+    private final KeysetSql keysetSql;
+
+    /**
+     * 方言分页SQL，数据源的数据库类型变化时重新生成
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile PageSql pageSql;
+
+    public ApiRoute(ApiInfo apiInfo) {
+        this.key = ApiRouteTable.routeKey(apiInfo.getApiMethod(), apiInfo.getApiPath());
+        this.apiInfo = apiInfo;
+        this.compiledSql = CompiledSql.compile(apiInfo.getSqlContent());
+        this.keysetSql = KeysetSql.parse(apiInfo.getKeysetColumns());
+    }
+
+    /**
+     * API ID
+     */
+    public Long getApiId() {
+        return apiInfo.getId();
+    }
+
+    /**
+     * 获取方言分页SQL
+     *
+     * @param databaseType 数据源的数据库类型
+     * @return 分页SQL
+     */
+    public PageSql getPageSql(DatabaseType databaseType) {
+        PageSql current = pageSql;
+        if (current == null || current.getDatabaseType() != databaseType) {
+            current = PageSql.of(compiledSql, databaseType);
+            pageSql = current;
+        }
+        return current;
+    }
+}
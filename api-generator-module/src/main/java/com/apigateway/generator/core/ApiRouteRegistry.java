@@ -0,0 +1,128 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.generator.entity.ApiInfo;
+import com.apigateway.generator.mapper.ApiInfoMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * API路由注册中心
+ * 启动时加载已发布API，API变更后原子替换路由表，请求路径上的查找不访问数据库。
+ * 同一路由键有多个已发布API时后更新的生效；加载和刷新串行执行，并按数据库最新状态重建受影响的路由键，
+ * 并发刷新不会以旧状态覆盖新状态，后发布的API下线后先前的API重新生效
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ApiRouteRegistry {
+
+    @Autowired
+    private ApiInfoMapper apiInfoMapper;
+
+    /**
+     * 当前路由表
+     */
+    private final AtomicReference<ApiRouteTable> routeTable = new AtomicReference<>(ApiRouteTable.EMPTY);
+
+    /**
+     * 启动时加载路由表
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("加载API路由表失败", e);
+        }
+    }
+
+    /**
+     * 从数据库全量加载路由表
+     */
+    public synchronized void reload() {
+        List<ApiInfo> apis = apiInfoMapper.selectPublishedRoutes();
+        List<ApiRoute> routes = new ArrayList<>(apis.size());
+        for (ApiInfo apiInfo : apis) {
+            try {
+                routes.add(new ApiRoute(apiInfo));
+            } catch (Exception e) {
+                log.error("API SQL模板编译失败，已跳过：{}", apiInfo.getApiPath(), e);
+            }
+        }
+        ApiRouteTable next = routeTable.updateAndGet(table -> ApiRouteTable.of(table.getVersion() + 1, routes));
+        log.info("API路由表加载完成，版本：{}，路由数：{}", next.getVersion(), next.size());
+    }
+
+    /**
+     * 查找已发布API路由
+     *
+     * @param method 请求方法
+     * @param path API路径
+     * @return 路由，不存在时返回null
+     */
+    public ApiRoute lookup(String method, String path) {
+        return routeTable.get().lookup(method, path);
+    }
+
+    /**
+     * 根据数据库最新状态刷新单个API的路由
+     * 重建该API原路由键和新路由键：每个路由键取数据库中已发布且编译通过的API中最后更新的一个
+     *
+     * @param apiId API ID
+     */
+    public synchronized void refresh(Long apiId) {
+        // 原路径：API下线、修改路径后需要恢复或移除原路由键上的路由
+        Set<String> paths = new LinkedHashSet<>();
+        ApiRoute current = routeTable.get().lookupById(apiId);
+        if (current != null) {
+            paths.add(current.getApiInfo().getApiPath());
+        }
+        ApiInfo apiInfo = apiInfoMapper.selectPublishedRouteById(apiId);
+        if (apiInfo != null) {
+            paths.add(apiInfo.getApiPath());
+        }
+
+        for (String path : paths) {
+            // 同一路径下各请求方法的路由键，按更新时间顺序后者覆盖前者
+            Map<String, ApiRoute> routes = new LinkedHashMap<>();
+            for (ApiInfo published : apiInfoMapper.selectPublishedRoutesByPath(path)) {
+                try {
+                    ApiRoute route = new ApiRoute(published);
+                    routes.put(route.getKey(), route);
+                } catch (Exception e) {
+                    log.error("API SQL模板编译失败，已跳过：{}", published.getApiPath(), e);
+                }
+            }
+            ApiRouteTable table = routeTable.get();
+            for (ApiRoute route : table.getRoutes()) {
+                if (path.equals(route.getApiInfo().getApiPath())) {
+                    routes.putIfAbsent(route.getKey(), null);
+                }
+            }
+            for (Map.Entry<String, ApiRoute> entry : routes.entrySet()) {
+                table = table.withKey(entry.getKey(), entry.getValue());
+            }
+            routeTable.set(table);
+        }
+        log.info("API路由已刷新：{}，路由表版本：{}", apiId, routeTable.get().getVersion());
+    }
+
+    /**
+     * 获取当前路由表
+     */
+    public ApiRouteTable getRouteTable() {
+        return routeTable.get();
+    }
+}
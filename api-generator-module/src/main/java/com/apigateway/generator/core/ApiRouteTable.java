@@ -0,0 +1,140 @@
+package com.apigateway.generator.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * API路由表
+ * 不可变的版本化快照，按"方法 + 路径"索引已发布API；
+ * 每次变更都会生成新的路由表，读取方无需加锁
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class ApiRouteTable {
+
+    /**
+     * 空路由表
+     */
+    public static final ApiRouteTable EMPTY = new ApiRouteTable(0L, Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * 版本号
+     */
+    private final long version;
+
+    /**
+     * 路由键 -> 路由
+     */
+    private final Map<String, ApiRoute> routes;
+
+    /**
+     * API ID -> 路由
+     */
+    private final Map<Long, ApiRoute> routesById;
+
+    private ApiRouteTable(long version, Map<String, ApiRoute> routes, Map<Long, ApiRoute> routesById) {
+        this.version = version;
+        this.routes = routes;
+        this.routesById = routesById;
+    }
+
+    /**
+     * 由路由集合构建新的路由表
+     *
+     * @param version 版本号
+     * @param routeList 路由集合
+     * @return 路由表
+     */
+    public static ApiRouteTable of(long version, Collection<ApiRoute> routeList) {
+        Map<String, ApiRoute> routes = new HashMap<>(routeList.size() * 2);
+        Map<Long, ApiRoute> routesById = new HashMap<>(routeList.size() * 2);
+        for (ApiRoute route : routeList) {
+            routes.put(route.getKey(), route);
+            routesById.put(route.getApiId(), route);
+        }
+        return new ApiRouteTable(version, Collections.unmodifiableMap(routes),
+                Collections.unmodifiableMap(routesById));
+    }
+
+    /**
+     * 生成路由键
+     *
+     * @param method 请求方法
+     * @param path API路径
+     * @return 路由键
+     */
+    public static String routeKey(String method, String path) {
+        return (method == null ? "" : method.toUpperCase()) + " " + path;
+    }
+
+    /**
+     * 查找路由
+     *
+     * @param method 请求方法
+     * @param path API路径
+     * @return 路由，不存在时返回null
+     */
+    public ApiRoute lookup(String method, String path) {
+        return routes.get(routeKey(method, path));
+    }
+
+    /**
+     * 根据API ID查找路由
+     *
+     * @param apiId API ID
+     * @return 路由，不存在时返回null
+     */
+    public ApiRoute lookupById(Long apiId) {
+        return routesById.get(apiId);
+    }
+
+    /**
+     * 返回指定路由键替换为给定路由后的路由表
+     * 路由键上原有的路由被移除；给定路由的API原先在其他路由键上时，从原路由键移除
+     *
+     * @param key 路由键
+     * @param route 路由，为空表示移除该路由键
+     * @return 新路由表
+     */
+    public ApiRouteTable withKey(String key, ApiRoute route) {
+        Map<String, ApiRoute> routes = new HashMap<>(this.routes);
+        Map<Long, ApiRoute> routesById = new HashMap<>(this.routesById);
+        ApiRoute displaced = routes.remove(key);
+        if (displaced != null) {
+            routesById.remove(displaced.getApiId());
+        }
+        if (route != null) {
+            ApiRoute previous = routesById.put(route.getApiId(), route);
+            if (previous != null) {
+                routes.remove(previous.getKey(), previous);
+            }
+            routes.put(key, route);
+        }
+        return new ApiRouteTable(version + 1, Collections.unmodifiableMap(routes),
+                Collections.unmodifiableMap(routesById));
+    }
+
+    /**
+     * 获取全部路由
+     */
+    public Collection<ApiRoute> getRoutes() {
+        return routesById.values();
+    }
+
+    /**
+     * 获取版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 路由数量
+     */
+    public int size() {
+        return routesById.size();
+    }
+}
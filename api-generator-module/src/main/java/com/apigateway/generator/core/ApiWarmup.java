@@ -0,0 +1,239 @@
+package com.apigateway.generator.core;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.apigateway.datasource.manager.DataSourceManager;
+import com.apigateway.generator.config.ApiExecuteProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API预热
+ * 启动时将已发布API使用的连接池预先填充到 minIdle，并在这些连接上预编译各API的SQL（进入PSCache）；
+ * 预热完成或超时前网关健康检查报告未就绪。API发布后单独预热该API
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ApiWarmup {
+
+    /**
+     * 连接池类型不是Druid时预热的连接数
+     */
+    private static final int DEFAULT_WARMUP_CONNECTIONS = 5;
+
+    /**
+     * 预热状态
+     */
+    public enum State {
+        /**
+         * 等待启动完成
+         */
+        PENDING,
+        /**
+         * 预热中
+         */
+        RUNNING,
+        /**
+         * 已完成
+         */
+        DONE,
+        /**
+         * 超时，未完成部分在后台继续
+         */
+        TIMED_OUT,
+        /**
+         * 未开启预热
+         */
+        DISABLED
+    }
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    @Autowired
+    private ApiRouteRegistry apiRouteRegistry;
+
+    @Autowired
+    private DataSourceManager dataSourceManager;
+
+    /**
+     * 预热线程池
+     */
+    private ExecutorService executor;
+
+    private volatile State state = State.PENDING;
+
+    /**
+     * 启动预热耗时(毫秒)
+     */
+    private volatile long elapsedMillis;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(apiExecuteProperties.getWarmup().getThreads(), daemonThreadFactory());
+    }
+
+    /**
+     * 启动完成后预热全部已发布API，等待完成或超时
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!apiExecuteProperties.getWarmup().isEnabled()) {
+            state = State.DISABLED;
+            return;
+        }
+        state = State.RUNNING;
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<Void> warmup = warmup(apiRouteRegistry.getRouteTable().getRoutes());
+        // 在独立线程等待，避免占用预热线程
+        Thread waiter = daemonThreadFactory().newThread(() -> {
+            try {
+                warmup.get(apiExecuteProperties.getWarmup().getTimeout(), TimeUnit.MILLISECONDS);
+                state = State.DONE;
+            } catch (Exception e) {
+                state = State.TIMED_OUT;
+                log.warn("API预热超时，网关开始接收请求，未完成的预热在后台继续");
+            }
+            elapsedMillis = System.currentTimeMillis() - startTime;
+            log.info("API预热结束：{}，耗时：{}ms", state, elapsedMillis);
+        });
+        waiter.start();
+    }
+
+    /**
+     * 预热单个API（发布或修改后调用），在预热线程中执行，不阻塞调用方，不影响就绪状态
+     *
+     * @param apiId API ID
+     */
+    public void warmupApi(Long apiId) {
+        if (!apiExecuteProperties.getWarmup().isEnabled()) {
+            return;
+        }
+        executor.execute(() -> {
+            ApiRoute route = apiRouteRegistry.getRouteTable().lookupById(apiId);
+            if (route != null) {
+                List<ApiRoute> routes = new ArrayList<>(1);
+                routes.add(route);
+                warmup(routes);
+            }
+        });
+    }
+
+    /**
+     * 按数据源分组并行预热
+     */
+    private CompletableFuture<Void> warmup(Collection<ApiRoute> routes) {
+        Map<DataSource, List<String>> statements = new IdentityHashMap<>();
+        for (ApiRoute route : routes) {
+            try {
+                Long datasourceId = route.getApiInfo().getDatasourceId();
+                List<DataSource> dataSources = new ArrayList<>(dataSourceManager.getReadDataSources(datasourceId));
+                dataSources.add(dataSourceManager.getDataSource(datasourceId));
+                for (DataSource dataSource : dataSources) {
+                    statements.computeIfAbsent(dataSource, k -> new ArrayList<>())
+                            .add(route.getCompiledSql().getSql());
+                }
+            } catch (Exception e) {
+                log.warn("API预热获取数据源失败：{}，{}", route.getApiInfo().getApiPath(), e.getMessage());
+            }
+        }
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(statements.size());
+        for (Map.Entry<DataSource, List<String>> entry : statements.entrySet()) {
+            tasks.add(CompletableFuture.runAsync(() -> warmup(entry.getKey(), entry.getValue()), executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * 同时借出 minIdle 个连接使连接池填充到位，并在每个连接上预编译SQL
+     */
+    private void warmup(DataSource dataSource, List<String> sqls) {
+        int connections = DEFAULT_WARMUP_CONNECTIONS;
+        try {
+            if (dataSource.isWrapperFor(DruidDataSource.class)) {
+                connections = Math.max(1, dataSource.unwrap(DruidDataSource.class).getMinIdle());
+            }
+        } catch (SQLException e) {
+            log.debug("获取连接池配置失败：{}", e.getMessage());
+        }
+
+        // 去重，同一SQL只预编译一次
+        Map<String, Boolean> distinct = new LinkedHashMap<>();
+        sqls.forEach(sql -> distinct.put(sql, Boolean.TRUE));
+
+        List<Connection> borrowed = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection conn = dataSource.getConnection();
+                borrowed.add(conn);
+                for (String sql : distinct.keySet()) {
+                    try (PreparedStatement ignored = conn.prepareStatement(sql)) {
+                        // 关闭后语句保留在连接的PSCache中
+                    } catch (SQLException e) {
+                        log.debug("预编译SQL失败：{}，{}", sql, e.getMessage());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("连接池预热失败：{}", e.getMessage());
+        } finally {
+            for (Connection conn : borrowed) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    log.debug("归还连接失败：{}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 网关是否就绪：预热完成、超时或未开启预热
+     */
+    public boolean isReady() {
+        return state == State.DONE || state == State.TIMED_OUT || state == State.DISABLED;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("api-warmup-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
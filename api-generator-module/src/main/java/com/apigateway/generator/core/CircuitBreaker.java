@@ -0,0 +1,213 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.generator.config.ApiExecuteProperties;
+
+/**
+ * 熔断器
+ * 按最近 windowSize 次调用统计失败率和慢调用率，超过阈值后打开，打开期间直接拒绝；
+ * 打开时间结束后进入半开状态，放行有限次数的试探调用，全部成功则关闭，任一失败重新打开
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 关闭，正常放行
+         */
+        CLOSED,
+        /**
+         * 打开，直接拒绝
+         */
+        OPEN,
+        /**
+         * 半开，放行试探调用
+         */
+        HALF_OPEN
+    }
+
+    private static final byte SUCCESS = 0;
+
+    private static final byte FAILURE = 1;
+
+    private static final byte SLOW = 2;
+
+    private static final byte SLOW_FAILURE = FAILURE | SLOW;
+
+    private final String name;
+
+    private final ApiExecuteProperties.CircuitBreaker config;
+
+    /**
+     * 最近调用结果（环形缓冲）
+     */
+    private final byte[] outcomes;
+
+    private int count;
+
+    private int next;
+
+    private int failures;
+
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+
+    /**
+     * 打开状态截止时间
+     */
+    private long openUntil;
+
+    /**
+     * 半开状态剩余试探次数
+     */
+    private int trialPermits;
+
+    /**
+     * 半开状态已成功的试探次数
+     */
+    private int trialSuccesses;
+
+    /**
+     * 被拒绝的调用数
+     */
+    private long notPermitted;
+
+    public CircuitBreaker(String name, ApiExecuteProperties.CircuitBreaker config) {
+        this.name = name;
+        this.config = config;
+        this.outcomes = new byte[Math.max(1, config.getWindowSize())];
+    }
+
+    /**
+     * 申请调用许可
+     *
+     * @return 是否放行
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntil) {
+                notPermitted++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialPermits = Math.max(1, config.getHalfOpenCalls());
+            trialSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits <= 0) {
+                notPermitted++;
+                return false;
+            }
+            trialPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * 是否处于打开状态（不占用许可，用于排队前快速失败）
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() < openUntil;
+    }
+
+    /**
+     * 归还未使用的许可（调用未执行）
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialPermits++;
+        }
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param elapsedMillis 调用耗时(毫秒)
+     * @param failed 是否失败
+     */
+    public synchronized void onComplete(long elapsedMillis, boolean failed) {
+        boolean slow = elapsedMillis >= config.getSlowCallMillis();
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++trialSuccesses >= Math.max(1, config.getHalfOpenCalls())) {
+                reset(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // 打开前发出的调用，不再计入
+            return;
+        }
+
+        if (count == outcomes.length) {
+            byte evicted = outcomes[next];
+            failures -= evicted & FAILURE;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            count++;
+        }
+        byte outcome = failed ? (slow ? SLOW_FAILURE : FAILURE) : (slow ? SLOW : SUCCESS);
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        failures += outcome & FAILURE;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (count >= config.getMinimumCalls()
+                && (failures * 100.0 / count >= config.getFailureRateThreshold()
+                || slowCalls * 100.0 / count >= config.getSlowCallRateThreshold())) {
+            open();
+        }
+    }
+
+    private void open() {
+        reset(State.OPEN);
+        openUntil = System.currentTimeMillis() + config.getOpenMillis();
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        count = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 窗口内失败率(%)
+     */
+    public synchronized double getFailureRate() {
+        return count > 0 ? failures * 100.0 / count : 0;
+    }
+
+    /**
+     * 窗口内慢调用率(%)
+     */
+    public synchronized double getSlowCallRate() {
+        return count > 0 ? slowCalls * 100.0 / count : 0;
+    }
+
+    /**
+     * 窗口内调用数
+     */
+    public synchronized int getBufferedCalls() {
+        return count;
+    }
+
+    public synchronized long getNotPermitted() {
+        return notPermitted;
+    }
+}
@@ -0,0 +1,153 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.constant.ResponseCode;
+import com.apigateway.common.exception.BusinessException;
+import com.apigateway.datasource.manager.DataSourceManager;
+import com.apigateway.generator.config.ApiExecuteProperties;
+import com.apigateway.generator.entity.ApiInfo;
+import com.apigateway.generator.entity.CircuitBreakerStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 熔断器注册表
+ * 每个数据源和每个API各有一个熔断器，执行SQL前需同时获得两者的许可：
+ * 数据源故障时该数据源上的所有API快速失败，单个API的慢SQL只熔断自身；
+ * 后台健康检查判定数据源异常时同样快速失败，无需等待失败率累积
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class CircuitBreakerRegistry {
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    @Autowired
+    private DataSourceManager dataSourceManager;
+
+    /**
+     * 熔断器名称 -> 熔断器
+     */
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * 在熔断保护下执行数据库操作
+     * 业务异常（参数错误等）不计为失败
+     *
+     * @param apiInfo API配置
+     * @param call 数据库操作
+     * @return 执行结果
+     * @throws BusinessException 熔断器打开时抛出，错误码503
+     */
+    public <V> V execute(ApiInfo apiInfo, Callable<V> call) throws Exception {
+        if (!apiExecuteProperties.getCircuitBreaker().isEnabled()) {
+            return call.call();
+        }
+        if (!dataSourceManager.isHealthy(apiInfo.getDatasourceId())) {
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "数据源不可用，请稍后重试");
+        }
+        CircuitBreaker datasourceBreaker = getBreaker(datasourceName(apiInfo.getDatasourceId()));
+        CircuitBreaker apiBreaker = getBreaker(apiName(apiInfo.getId()));
+        if (!datasourceBreaker.tryAcquire()) {
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "数据源熔断中，请稍后重试");
+        }
+        if (!apiBreaker.tryAcquire()) {
+            datasourceBreaker.release();
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "API熔断中，请稍后重试");
+        }
+
+        long startTime = System.currentTimeMillis();
+        boolean failed = true;
+        try {
+            V result = call.call();
+            failed = false;
+            return result;
+        } catch (BusinessException e) {
+            failed = false;
+            throw e;
+        } finally {
+            long elapsed = System.currentTimeMillis() - startTime;
+            onComplete(datasourceBreaker, elapsed, failed);
+            onComplete(apiBreaker, elapsed, failed);
+        }
+    }
+
+    /**
+     * 熔断器是否打开，用于提交到执行线程池前快速失败
+     *
+     * @param apiInfo API配置
+     * @return 数据源或API熔断器是否打开，或数据源健康检查异常
+     */
+    public boolean isOpen(ApiInfo apiInfo) {
+        if (!apiExecuteProperties.getCircuitBreaker().isEnabled()) {
+            return false;
+        }
+        if (!dataSourceManager.isHealthy(apiInfo.getDatasourceId())) {
+            return true;
+        }
+        CircuitBreaker datasourceBreaker = breakers.get(datasourceName(apiInfo.getDatasourceId()));
+        CircuitBreaker apiBreaker = breakers.get(apiName(apiInfo.getId()));
+        return (datasourceBreaker != null && datasourceBreaker.isOpen())
+                || (apiBreaker != null && apiBreaker.isOpen());
+    }
+
+    private void onComplete(CircuitBreaker breaker, long elapsed, boolean failed) {
+        CircuitBreaker.State before = breaker.getState();
+        breaker.onComplete(elapsed, failed);
+        CircuitBreaker.State after = breaker.getState();
+        if (before != after) {
+            log.warn("熔断器状态变更：{}，{} -> {}", breaker.getName(), before, after);
+        }
+    }
+
+    /**
+     * API修改或下线后移除其熔断器
+     *
+     * @param apiId API ID
+     */
+    public void evictApi(Long apiId) {
+        breakers.remove(apiName(apiId));
+    }
+
+    /**
+     * 获取全部熔断器状态
+     */
+    public List<CircuitBreakerStatus> getStatuses() {
+        List<CircuitBreakerStatus> statuses = new ArrayList<>(breakers.size());
+        for (CircuitBreaker breaker : breakers.values()) {
+            CircuitBreakerStatus status = new CircuitBreakerStatus();
+            status.setName(breaker.getName());
+            status.setState(breaker.getState().name());
+            status.setFailureRate(breaker.getFailureRate());
+            status.setSlowCallRate(breaker.getSlowCallRate());
+            status.setBufferedCalls(breaker.getBufferedCalls());
+            status.setNotPermittedCalls(breaker.getNotPermitted());
+            statuses.add(status);
+        }
+        statuses.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return statuses;
+    }
+
+    private CircuitBreaker getBreaker(String name) {
+        return breakers.computeIfAbsent(name,
+                k -> new CircuitBreaker(k, apiExecuteProperties.getCircuitBreaker()));
+    }
+
+    private static String datasourceName(Long datasourceId) {
+        return "datasource:" + (datasourceId != null ? datasourceId : "primary");
+    }
+
+    private static String apiName(Long apiId) {
+        return "api:" + apiId;
+    }
+}
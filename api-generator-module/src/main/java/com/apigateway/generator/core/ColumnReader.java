@@ -0,0 +1,256 @@
+package com.apigateway.generator.core;
+
+import com.alibaba.fastjson2.JSONWriter;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 结果集列读取器
+ * 每条语句执行时根据元数据构建一次，按JDBC类型选择对应的取值方法，
+ * 流式输出时直接编码基本类型，避免逐个单元格装箱和重复读取元数据。
+ * 列名取列标签（SQL中的别名，无别名时与列名相同）：部分驱动（如MySQL）的 getColumnName 返回别名前的原始列名，
+ * 同一结果中两列取自不同表的同名列时会互相覆盖。
+ * TIMESTAMP 列在普通输出和流式输出中统一为ISO本地日期时间格式（如 2024-01-02T03:04:05.123）
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class ColumnReader {
+
+    /**
+     * 取值方式
+     */
+    enum Kind {
+        INT, LONG, DECIMAL, DOUBLE, BOOLEAN, STRING, TIMESTAMP, DATE, TIME, OBJECT
+    }
+
+    /**
+     * 列序号（从1开始）
+     */
+    private final int index;
+
+    /**
+     * 列名（列标签）
+     */
+    private final String name;
+
+    /**
+     * 取值方式
+     */
+    private final Kind kind;
+
+    private ColumnReader(int index, String name, Kind kind) {
+        this.index = index;
+        this.name = name;
+        this.kind = kind;
+    }
+
+    /**
+     * 根据结果集元数据构建列读取器
+     *
+     * @param metaData 结果集元数据
+     * @return 列读取器数组
+     * @throws SQLException SQL异常
+     */
+    public static ColumnReader[] of(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        ColumnReader[] readers = new ColumnReader[columnCount];
+        for (int i = 1; i <= columnCount; i++) {
+            readers[i - 1] = new ColumnReader(i, metaData.getColumnLabel(i),
+                    kindOf(metaData.getColumnType(i), metaData.getColumnClassName(i)));
+        }
+        return readers;
+    }
+
+    /**
+     * 根据JDBC类型确定取值方式
+     */
+    private static Kind kindOf(int jdbcType, String className) {
+        switch (jdbcType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+                return Kind.INT;
+            case Types.INTEGER:
+                return Kind.LONG;
+            case Types.BIGINT:
+                // 无符号BIGINT可能超出long范围
+                return "java.math.BigInteger".equals(className) ? Kind.OBJECT : Kind.LONG;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return Kind.DECIMAL;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return Kind.DOUBLE;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                // BIT(n>1) 由驱动映射为byte[]
+                return "java.lang.Boolean".equals(className) ? Kind.BOOLEAN : Kind.OBJECT;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return Kind.STRING;
+            case Types.TIMESTAMP:
+                return Kind.TIMESTAMP;
+            case Types.DATE:
+                return Kind.DATE;
+            case Types.TIME:
+                return Kind.TIME;
+            default:
+                return Kind.OBJECT;
+        }
+    }
+
+    /**
+     * 读取当前行的值并直接写入JSON
+     *
+     * @param rs 结果集
+     * @param writer JSON输出
+     * @throws SQLException SQL异常
+     */
+    public void write(ResultSet rs, JSONWriter writer) throws SQLException {
+        switch (kind) {
+            case INT: {
+                int value = rs.getInt(index);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeInt32(value);
+                }
+                break;
+            }
+            case LONG: {
+                long value = rs.getLong(index);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeInt64(value);
+                }
+                break;
+            }
+            case DOUBLE: {
+                double value = rs.getDouble(index);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeDouble(value);
+                }
+                break;
+            }
+            case BOOLEAN: {
+                boolean value = rs.getBoolean(index);
+                if (rs.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeBool(value);
+                }
+                break;
+            }
+            case DECIMAL: {
+                BigDecimal value = rs.getBigDecimal(index);
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    writer.writeDecimal(value);
+                }
+                break;
+            }
+            case STRING: {
+                String value = rs.getString(index);
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    writer.writeString(value);
+                }
+                break;
+            }
+            case TIMESTAMP: {
+                Timestamp value = rs.getTimestamp(index);
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    // 与普通输出中Jackson序列化 LocalDateTime 的格式一致
+                    writer.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value.toLocalDateTime()));
+                }
+                break;
+            }
+            case DATE: {
+                Date value = rs.getDate(index);
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    writer.writeString(value.toString());
+                }
+                break;
+            }
+            case TIME: {
+                Time value = rs.getTime(index);
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    writer.writeString(value.toString());
+                }
+                break;
+            }
+            default:
+                writer.writeAny(rs.getObject(index));
+        }
+    }
+
+    /**
+     * 读取当前行的值
+     * TIMESTAMP 统一读取为 LocalDateTime（各驱动 getObject 返回 Timestamp 或 LocalDateTime 不一），
+     * 其他日期时间类型仍使用getObject，保持原有的序列化格式
+     *
+     * @param rs 结果集
+     * @return 列值
+     * @throws SQLException SQL异常
+     */
+    public Object read(ResultSet rs) throws SQLException {
+        switch (kind) {
+            case INT: {
+                int value = rs.getInt(index);
+                return rs.wasNull() ? null : value;
+            }
+            case LONG: {
+                long value = rs.getLong(index);
+                return rs.wasNull() ? null : value;
+            }
+            case DOUBLE: {
+                double value = rs.getDouble(index);
+                return rs.wasNull() ? null : value;
+            }
+            case BOOLEAN: {
+                boolean value = rs.getBoolean(index);
+                return rs.wasNull() ? null : value;
+            }
+            case DECIMAL:
+                return rs.getBigDecimal(index);
+            case STRING:
+                return rs.getString(index);
+            case TIMESTAMP: {
+                Timestamp value = rs.getTimestamp(index);
+                return value != null ? value.toLocalDateTime() : null;
+            }
+            default:
+                return rs.getObject(index);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+}
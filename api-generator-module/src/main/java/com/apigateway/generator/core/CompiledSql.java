@@ -0,0 +1,245 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.exception.BusinessException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的SQL模板
+ * 发布时将 ${name} 占位符解析为位置参数 ?，并预先计算参数槽位顺序，
+ * 执行时通过 PreparedStatement.setObject 绑定参数，SQL文本固定便于复用执行计划和PSCache
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class CompiledSql {
+
+    /**
+     * 占位符前缀
+     */
+    private static final String PLACEHOLDER_PREFIX = "${";
+
+    /**
+     * 占位符后缀
+     */
+    private static final char PLACEHOLDER_SUFFIX = '}';
+
+    /**
+     * 原始SQL模板
+     */
+    private final String template;
+
+    /**
+     * 预编译SQL（使用 ? 占位）
+     */
+    private final String sql;
+
+    /**
+     * 参数槽位顺序（下标 i 对应第 i + 1 个 ?）
+     */
+    private final String[] paramNames;
+
+    /**
+     * SQL类型（SELECT/INSERT/UPDATE/DELETE/UNKNOWN）
+     */
+    private final String sqlType;
+
+    /**
+     * 涉及的表名（缓存标签）
+     */
+    private final Set<String> tables;
+
+    private CompiledSql(String template, String sql, String[] paramNames) {
+        this.template = template;
+        this.sql = sql;
+        this.paramNames = paramNames;
+        this.sqlType = parseSqlType(template);
+        this.tables = SqlTables.parse(sql);
+    }
+
+    /**
+     * 编译SQL模板
+     * 字符串常量中的占位符会改写为 CONCAT 拼接，如 '%${name}%' 编译为 CONCAT('%', ?, '%')
+     *
+     * @param template SQL模板
+     * @return 编译结果
+     */
+    public static CompiledSql compile(String template) {
+        if (template == null || template.trim().isEmpty()) {
+            throw new BusinessException("SQL内容不能为空");
+        }
+
+        StringBuilder sql = new StringBuilder(template.length());
+        List<String> paramNames = new ArrayList<>();
+        int length = template.length();
+        int i = 0;
+        while (i < length) {
+            char c = template.charAt(i);
+            if (c == '\'') {
+                i = compileLiteral(template, i, sql, paramNames);
+            } else if (template.startsWith(PLACEHOLDER_PREFIX, i)) {
+                int end = placeholderEnd(template, i);
+                paramNames.add(placeholderName(template, i, end));
+                sql.append('?');
+                i = end + 1;
+            } else {
+                sql.append(c);
+                i++;
+            }
+        }
+        return new CompiledSql(template, sql.toString(), paramNames.toArray(new String[0]));
+    }
+
+    /**
+     * 编译字符串常量，返回常量结束后的位置
+     */
+    private static int compileLiteral(String template, int start, StringBuilder sql, List<String> paramNames) {
+        // 常量片段：String 为文本，null 表示参数
+        List<String> parts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int length = template.length();
+        int i = start + 1;
+        while (true) {
+            if (i >= length) {
+                throw new BusinessException("SQL模板中的字符串常量未闭合");
+            }
+            char c = template.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && template.charAt(i + 1) == '\'') {
+                    text.append("''");
+                    i += 2;
+                    continue;
+                }
+                break;
+            }
+            if (template.startsWith(PLACEHOLDER_PREFIX, i)) {
+                int end = placeholderEnd(template, i);
+                if (text.length() > 0) {
+                    parts.add(text.toString());
+                    text.setLength(0);
+                }
+                parts.add(null);
+                names.add(placeholderName(template, i, end));
+                i = end + 1;
+                continue;
+            }
+            text.append(c);
+            i++;
+        }
+        if (text.length() > 0) {
+            parts.add(text.toString());
+        }
+
+        if (names.isEmpty()) {
+            // 普通常量，原样输出
+            sql.append(template, start, i + 1);
+        } else if (parts.size() == 1) {
+            // '${name}' 直接作为参数
+            sql.append('?');
+        } else {
+            sql.append("CONCAT(");
+            for (int p = 0; p < parts.size(); p++) {
+                if (p > 0) {
+                    sql.append(", ");
+                }
+                String part = parts.get(p);
+                sql.append(part == null ? "?" : "'" + part + "'");
+            }
+            sql.append(')');
+        }
+        paramNames.addAll(names);
+        return i + 1;
+    }
+
+    /**
+     * 查找占位符结束位置
+     */
+    private static int placeholderEnd(String template, int start) {
+        int end = template.indexOf(PLACEHOLDER_SUFFIX, start + PLACEHOLDER_PREFIX.length());
+        if (end < 0) {
+            throw new BusinessException("SQL模板占位符未闭合：" + template.substring(start));
+        }
+        return end;
+    }
+
+    /**
+     * 解析占位符参数名
+     */
+    private static String placeholderName(String template, int start, int end) {
+        String name = template.substring(start + PLACEHOLDER_PREFIX.length(), end).trim();
+        if (name.isEmpty()) {
+            throw new BusinessException("SQL模板占位符参数名不能为空");
+        }
+        return name;
+    }
+
+    /**
+     * 解析SQL类型
+     */
+    private static String parseSqlType(String sql) {
+        String trimmed = sql.trim().toUpperCase();
+        if (trimmed.startsWith("SELECT")) {
+            return "SELECT";
+        } else if (trimmed.startsWith("INSERT")) {
+            return "INSERT";
+        } else if (trimmed.startsWith("UPDATE")) {
+            return "UPDATE";
+        } else if (trimmed.startsWith("DELETE")) {
+            return "DELETE";
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * 按槽位顺序绑定参数，缺失的参数绑定为NULL
+     *
+     * @param ps PreparedStatement
+     * @param params 请求参数
+     * @throws SQLException SQL异常
+     */
+    public void bind(PreparedStatement ps, Map<String, Object> params) throws SQLException {
+        for (int i = 0; i < paramNames.length; i++) {
+            Object value = params != null ? params.get(paramNames[i]) : null;
+            ps.setObject(i + 1, value);
+        }
+    }
+
+    /**
+     * 是否为查询语句
+     */
+    public boolean isQuery() {
+        return "SELECT".equals(sqlType);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String[] getParamNames() {
+        return paramNames.clone();
+    }
+
+    public List<String> getParamNameList() {
+        return Collections.unmodifiableList(Arrays.asList(paramNames));
+    }
+
+    public String getSqlType() {
+        return sqlType;
+    }
+
+    public Set<String> getTables() {
+        return tables;
+    }
+}
@@ -0,0 +1,272 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.generator.config.ApiExecuteProperties;
+import com.apigateway.generator.entity.ConnectionLeak;
+import com.apigateway.generator.entity.ConnectionUsageStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接借用/持有统计和泄漏检测
+ * 执行路径通过本类借用连接，按API记录借用等待时间、持有时间（无锁直方图）和当前持有数；
+ * 开启泄漏检测时借用连接时记录调用堆栈（借出位置），后台每秒检查借出中的连接，持有超过阈值时记录该堆栈；
+ * 不在发现时抓取借出线程的当前堆栈，因为泄漏的连接往往已离开借出位置，线程池线程此时停在等待任务处
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ConnectionTracker {
+
+    /**
+     * 泄漏检查间隔(毫秒)
+     */
+    private static final long LEAK_CHECK_INTERVAL = 1000L;
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    /**
+     * API ID -> 连接使用统计
+     */
+    private final Map<Long, Usage> usages = new ConcurrentHashMap<>();
+
+    /**
+     * 借出中的连接
+     */
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 最近的泄漏记录，新记录在前
+     */
+    private final Deque<ConnectionLeak> leaks = new ConcurrentLinkedDeque<>();
+
+    /**
+     * 泄漏检查线程
+     */
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        ApiExecuteProperties.ConnectionTracking tracking = apiExecuteProperties.getConnectionTracking();
+        if (!tracking.isEnabled() || tracking.getLeakThreshold() <= 0) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("connection-leak-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(this::detectLeaks,
+                LEAK_CHECK_INTERVAL, LEAK_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 为API借用连接，关闭连接时记录持有时间
+     *
+     * @param apiId API ID
+     * @param dataSource 数据源
+     * @return 连接
+     * @throws SQLException 借用失败
+     */
+    public Connection getConnection(Long apiId, DataSource dataSource) throws SQLException {
+        if (!apiExecuteProperties.getConnectionTracking().isEnabled() || apiId == null) {
+            return dataSource.getConnection();
+        }
+        Usage usage = usages.computeIfAbsent(apiId, k -> new Usage());
+        long start = System.nanoTime();
+        Connection conn = dataSource.getConnection();
+        long borrowed = System.nanoTime();
+        usage.wait.record(borrowed - start);
+
+        Lease lease = new Lease(apiId, usage, Thread.currentThread().getName(), borrowed,
+                scheduler != null ? new Throwable("借出连接") : null);
+        usage.held.increment();
+        leases.add(lease);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        release(lease);
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void release(Lease lease) {
+        if (!lease.released.compareAndSet(false, true)) {
+            return;
+        }
+        long held = System.nanoTime() - lease.borrowNanos;
+        leases.remove(lease);
+        lease.usage.held.decrement();
+        lease.usage.hold.record(held);
+        ConnectionLeak leak = lease.leak;
+        if (leak != null) {
+            leak.setReleased(true);
+            leak.setReleasedAfterMillis(TimeUnit.NANOSECONDS.toMillis(held));
+            log.info("疑似泄漏的连接已归还：API {}，持有{}ms", lease.apiId, leak.getReleasedAfterMillis());
+        }
+    }
+
+    /**
+     * 检查持有超过阈值的连接，每个连接只记录一次
+     */
+    private void detectLeaks() {
+        ApiExecuteProperties.ConnectionTracking tracking = apiExecuteProperties.getConnectionTracking();
+        long now = System.nanoTime();
+        long threshold = TimeUnit.MILLISECONDS.toNanos(tracking.getLeakThreshold());
+        for (Lease lease : leases) {
+            long held = now - lease.borrowNanos;
+            if (lease.leak != null || held < threshold || lease.released.get()) {
+                continue;
+            }
+            ConnectionLeak leak = new ConnectionLeak();
+            leak.setApiId(lease.apiId);
+            leak.setThread(lease.thread);
+            leak.setBorrowTime(LocalDateTime.now().minusNanos(held));
+            leak.setHeldMillis(TimeUnit.NANOSECONDS.toMillis(held));
+            leak.setReleased(false);
+            leak.setStackTrace(stackTrace(lease.borrowStack, tracking.getStackDepth()));
+            lease.leak = leak;
+            lease.usage.leaks.increment();
+
+            leaks.addFirst(leak);
+            while (leaks.size() > tracking.getMaxLeakRecords()) {
+                leaks.pollLast();
+            }
+            log.warn("连接持有超过{}ms，疑似泄漏：API {}，线程 {}\n{}", leak.getHeldMillis(), lease.apiId,
+                    leak.getThread(), leak.getStackTrace());
+        }
+    }
+
+    private static String stackTrace(Throwable borrowStack, int depth) {
+        if (borrowStack == null) {
+            return "借出时未记录堆栈";
+        }
+        StackTraceElement[] elements = borrowStack.getStackTrace();
+        StringBuilder stack = new StringBuilder();
+        for (int i = 0; i < elements.length && i < depth; i++) {
+            stack.append("\tat ").append(elements[i]).append('\n');
+        }
+        if (elements.length > depth) {
+            stack.append("\t... ").append(elements.length - depth).append(" more\n");
+        }
+        return stack.toString();
+    }
+
+    /**
+     * 获取各API的连接使用统计，当前持有数多的在前
+     */
+    public List<ConnectionUsageStats> getUsageStats() {
+        List<ConnectionUsageStats> statsList = new ArrayList<>(usages.size());
+        usages.forEach((apiId, usage) -> {
+            ConnectionUsageStats stats = new ConnectionUsageStats();
+            stats.setApiId(apiId);
+            stats.setHeld(usage.held.sum());
+            stats.setBorrows(usage.wait.getCount());
+            stats.setWaitMeanMillis(round(usage.wait.getMeanMillis()));
+            stats.setWaitP99Millis(round(usage.wait.getPercentileMillis(99)));
+            stats.setWaitMaxMillis(round(usage.wait.getMaxMillis()));
+            stats.setHoldMeanMillis(round(usage.hold.getMeanMillis()));
+            stats.setHoldP99Millis(round(usage.hold.getPercentileMillis(99)));
+            stats.setHoldMaxMillis(round(usage.hold.getMaxMillis()));
+            stats.setLeaks(usage.leaks.sum());
+            statsList.add(stats);
+        });
+        statsList.sort((a, b) -> a.getHeld().equals(b.getHeld())
+                ? Double.compare(b.getHoldP99Millis(), a.getHoldP99Millis()) : Long.compare(b.getHeld(), a.getHeld()));
+        return statsList;
+    }
+
+    /**
+     * 获取最近的泄漏记录，新记录在前
+     */
+    public List<ConnectionLeak> getLeaks() {
+        return new ArrayList<>(leaks);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * 单个API的连接使用统计
+     */
+    private static final class Usage {
+
+        private final LatencyHistogram wait = new LatencyHistogram();
+
+        private final LatencyHistogram hold = new LatencyHistogram();
+
+        private final LongAdder held = new LongAdder();
+
+        private final LongAdder leaks = new LongAdder();
+    }
+
+    /**
+     * 一次连接借出
+     */
+    private static final class Lease {
+
+        private final Long apiId;
+
+        private final Usage usage;
+
+        private final String thread;
+
+        private final long borrowNanos;
+
+        /**
+         * 借出连接时的调用堆栈，未开启泄漏检测时为空
+         */
+        private final Throwable borrowStack;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * 泄漏记录，持有超过阈值后由检查线程设置
+         */
+        private volatile ConnectionLeak leak;
+
+        Lease(Long apiId, Usage usage, String thread, long borrowNanos, Throwable borrowStack) {
+            this.apiId = apiId;
+            this.usage = usage;
+            this.thread = thread;
+            this.borrowNanos = borrowNanos;
+            this.borrowStack = borrowStack;
+        }
+    }
+}
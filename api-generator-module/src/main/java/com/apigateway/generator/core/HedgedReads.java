@@ -0,0 +1,312 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.datasource.core.DataSourceContextHolder;
+import com.apigateway.generator.config.ApiExecuteProperties;
+import com.apigateway.generator.entity.ApiInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对冲读取
+ * 查询先发往首选读库，超过该API近期延迟的百分位仍未返回时，向另一个读库发送相同查询，
+ * 先返回的结果生效并取消另一方的语句；对冲次数受预算限制，避免放大数据库负载。
+ * 熔断期间不对冲，对冲查询另外占用数据源的并发许可，数据源繁忙时放弃对冲
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class HedgedReads {
+
+    /**
+     * 每记录多少个样本重新计算一次对冲阈值
+     */
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    @Autowired
+    private AdaptiveLimiterRegistry adaptiveLimiters;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    /**
+     * API ID -> 延迟样本
+     */
+    private final Map<Long, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * 对冲触发定时器
+     */
+    private ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * 对冲请求执行线程池
+     */
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 可用对冲额度
+     */
+    private double budget;
+
+    /**
+     * 发起的对冲请求数
+     */
+    private final LongAdder hedges = new LongAdder();
+
+    /**
+     * 对冲请求先返回的次数
+     */
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * 因预算不足、线程占满、熔断或数据源并发已满放弃的对冲数
+     */
+    private final LongAdder hedgeSkipped = new LongAdder();
+
+    /**
+     * 单次查询
+     *
+     * @param <V> 结果类型
+     */
+    @FunctionalInterface
+    public interface Attempt<V> {
+
+        /**
+         * 在指定数据源上执行查询，执行的语句需登记到取消句柄
+         */
+        V run(DataSource dataSource, StatementCanceller canceller) throws Exception;
+    }
+
+    /**
+     * API是否开启对冲读取
+     *
+     * @param apiInfo API配置
+     * @return 是否对冲
+     */
+    public static boolean isHedged(ApiInfo apiInfo) {
+        return apiInfo.getHedgeEnabled() != null && apiInfo.getHedgeEnabled() == 1;
+    }
+
+    @PostConstruct
+    public void init() {
+        ApiExecuteProperties.Hedge hedge = apiExecuteProperties.getHedge();
+        scheduler = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("api-hedge-timer-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        executor = new ThreadPoolExecutor(hedge.getThreads(), hedge.getThreads(),
+                60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                daemonThreadFactory("api-hedge-"), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 对冲线程不阻止JVM退出
+     */
+    private static CustomizableThreadFactory daemonThreadFactory(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    /**
+     * 执行查询，满足条件时对冲到第二个读库
+     *
+     * @param apiInfo API配置（延迟样本按API统计）
+     * @param dataSources 可用读库，首选读库在前
+     * @param canceller 请求的取消句柄，请求取消时首选和对冲查询一起取消
+     * @param attempt 查询
+     * @return 先返回的查询结果
+     * @throws Exception 首选读库查询失败且对冲未成功时抛出
+     */
+    public <V> V execute(ApiInfo apiInfo, List<DataSource> dataSources, StatementCanceller canceller,
+                         Attempt<V> attempt) throws Exception {
+        ApiExecuteProperties.Hedge hedge = apiExecuteProperties.getHedge();
+        LatencyWindow window = windows.computeIfAbsent(apiInfo.getId(), k -> new LatencyWindow(hedge.getWindowSize()));
+        long startTime = System.currentTimeMillis();
+        long delay = dataSources.size() > 1 ? window.threshold() : -1;
+        if (delay < 0) {
+            V result = attempt.run(dataSources.get(0), canceller);
+            window.record(System.currentTimeMillis() - startTime, hedge);
+            return result;
+        }
+
+        deposit(hedge);
+        CompletableFuture<V> winner = new CompletableFuture<>();
+        StatementCanceller primary = canceller.child();
+        StatementCanceller secondary = canceller.child();
+        // 数据源上下文（会话、执行的API）随对冲请求传递
+        ScheduledFuture<?> timer = scheduler.schedule(DataSourceContextHolder.wrap(
+                () -> startHedge(apiInfo, dataSources.get(1), attempt, winner, primary, secondary)),
+                delay, TimeUnit.MILLISECONDS);
+
+        V result;
+        try {
+            result = attempt.run(dataSources.get(0), primary);
+        } catch (Exception e) {
+            if (winner.isDone() && !winner.isCompletedExceptionally()) {
+                // 对冲请求已返回并取消了首选读库的查询
+                window.record(System.currentTimeMillis() - startTime, hedge);
+                return winner.join();
+            }
+            winner.completeExceptionally(e);
+            timer.cancel(false);
+            secondary.cancel();
+            throw e;
+        }
+        if (!winner.complete(result)) {
+            return winner.join();
+        }
+        timer.cancel(false);
+        secondary.cancel();
+        window.record(System.currentTimeMillis() - startTime, hedge);
+        return result;
+    }
+
+    private <V> void startHedge(ApiInfo apiInfo, DataSource dataSource, Attempt<V> attempt,
+                                CompletableFuture<V> winner, StatementCanceller primary,
+                                StatementCanceller secondary) {
+        if (winner.isDone()) {
+            return;
+        }
+        if (circuitBreakers.isOpen(apiInfo) || !tryAcquire()) {
+            hedgeSkipped.increment();
+            return;
+        }
+        try {
+            executor.execute(DataSourceContextHolder.wrap(() -> {
+                boolean[] started = new boolean[1];
+                try {
+                    // 对冲查询与普通查询一样占用数据源并发许可，超限时放弃对冲
+                    V result = adaptiveLimiters.execute(apiInfo.getDatasourceId(), () -> {
+                        started[0] = true;
+                        hedges.increment();
+                        return attempt.run(dataSource, secondary);
+                    });
+                    if (winner.complete(result)) {
+                        hedgeWins.increment();
+                        primary.cancel();
+                    }
+                } catch (Exception e) {
+                    if (!started[0]) {
+                        hedgeSkipped.increment();
+                    } else {
+                        log.debug("对冲查询失败：{}", e.getMessage());
+                    }
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            hedgeSkipped.increment();
+        }
+    }
+
+    /**
+     * 每个可对冲的请求积累对冲额度
+     */
+    private synchronized void deposit(ApiExecuteProperties.Hedge hedge) {
+        budget = Math.min(hedge.getBudgetBurst(), budget + hedge.getBudgetRatio());
+    }
+
+    /**
+     * 消耗一个对冲额度
+     */
+    private synchronized boolean tryAcquire() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    /**
+     * API下线或修改后清除延迟样本
+     *
+     * @param apiId API ID
+     */
+    public void evict(Long apiId) {
+        windows.remove(apiId);
+    }
+
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    public long getHedgeSkipped() {
+        return hedgeSkipped.sum();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+        executor.shutdown();
+    }
+
+    /**
+     * API最近延迟样本（环形缓冲），定期计算对冲阈值
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+
+        private int count;
+
+        private int next;
+
+        private int sinceRecompute;
+
+        /**
+         * 对冲阈值(毫秒)，样本不足时为-1
+         */
+        private volatile long threshold = -1;
+
+        LatencyWindow(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        long threshold() {
+            return threshold;
+        }
+
+        synchronized void record(long millis, ApiExecuteProperties.Hedge hedge) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+            if (++sinceRecompute < RECOMPUTE_INTERVAL || count < hedge.getMinSamples()) {
+                return;
+            }
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(hedge.getPercentile() / 100 * count) - 1;
+            long value = sorted[Math.max(0, Math.min(index, count - 1))];
+            threshold = Math.max(hedge.getMinDelay(), value);
+        }
+    }
+}
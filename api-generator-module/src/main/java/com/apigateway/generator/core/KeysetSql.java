@@ -0,0 +1,174 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.exception.BusinessException;
+import com.apigateway.common.util.CursorUtils;
+import com.apigateway.datasource.core.DatabaseType;
+import org.springframework.util.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 键集（游标）分页SQL
+ * 按API配置的排序键（如 "create_time DESC, id DESC"）在查询外层追加
+ * 排序键比较条件和行数限制，翻页代价与页码无关。条件展开为
+ * c1 < ? OR (c1 = ? AND c2 < ?) 的形式，兼容不支持行值比较的数据库
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class KeysetSql {
+
+    /**
+     * 列名格式
+     */
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * 末尾分号
+     */
+    private static final Pattern TRAILING_SEMICOLON = Pattern.compile("[;\\s]+$");
+
+    /**
+     * 排序列
+     */
+    private final String[] columns;
+
+    /**
+     * 是否倒序
+     */
+    private final boolean[] descending;
+
+    private KeysetSql(String[] columns, boolean[] descending) {
+        this.columns = columns;
+        this.descending = descending;
+    }
+
+    /**
+     * 解析排序键配置
+     *
+     * @param spec 排序键，如 "create_time DESC, id DESC"，最后一列应唯一
+     * @return 键集分页SQL，未配置时返回null
+     */
+    public static KeysetSql parse(String spec) {
+        if (!StringUtils.hasText(spec)) {
+            return null;
+        }
+        String[] items = spec.trim().split("\\s*,\\s*");
+        String[] columns = new String[items.length];
+        boolean[] descending = new boolean[items.length];
+        for (int i = 0; i < items.length; i++) {
+            String[] parts = items[i].trim().split("\\s+");
+            if (parts.length > 2 || !IDENTIFIER.matcher(parts[0]).matches()
+                    || (parts.length == 2 && !parts[1].equalsIgnoreCase("ASC")
+                    && !parts[1].equalsIgnoreCase("DESC"))) {
+                throw new BusinessException("游标排序键配置错误：" + spec);
+            }
+            columns[i] = parts[0];
+            descending[i] = parts.length == 2 && parts[1].equalsIgnoreCase("DESC");
+        }
+        return new KeysetSql(columns, descending);
+    }
+
+    /**
+     * 生成键集分页SQL
+     *
+     * @param compiledSql 编译后的查询SQL（不应自带ORDER BY/LIMIT）
+     * @param databaseType 数据库类型
+     * @param seek 是否带游标（首页不带）
+     * @return 分页SQL，占位符顺序：SQL参数、排序键值、行数
+     */
+    public String sql(CompiledSql compiledSql, DatabaseType databaseType, boolean seek) {
+        String base = TRAILING_SEMICOLON.matcher(compiledSql.getSql()).replaceAll("");
+        StringBuilder sql = new StringBuilder("SELECT * FROM (").append(base).append(") page_t");
+        if (seek) {
+            sql.append(" WHERE ");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    sql.append(" OR ");
+                }
+                sql.append('(');
+                for (int j = 0; j < i; j++) {
+                    sql.append("page_t.").append(columns[j]).append(" = ? AND ");
+                }
+                sql.append("page_t.").append(columns[i]).append(descending[i] ? " < ?" : " > ?").append(')');
+            }
+        }
+        sql.append(" ORDER BY ");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("page_t.").append(columns[i]).append(descending[i] ? " DESC" : " ASC");
+        }
+        if (databaseType == DatabaseType.ORACLE) {
+            return "SELECT * FROM (" + sql + ") WHERE ROWNUM <= ?";
+        }
+        if (databaseType == DatabaseType.SQLSERVER) {
+            return sql + " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+        }
+        return sql + " LIMIT ?";
+    }
+
+    /**
+     * 绑定排序键值和行数
+     *
+     * @param ps 预编译语句
+     * @param index 第一个占位符的位置（SQL参数个数 + 1）
+     * @param key 游标中的排序键值，首页为null
+     * @param limit 查询行数
+     */
+    public void bind(PreparedStatement ps, int index, Object[] key, int limit) throws SQLException {
+        if (key != null) {
+            for (int i = 0; i < columns.length; i++) {
+                for (int j = 0; j <= i; j++) {
+                    ps.setObject(index++, key[j]);
+                }
+            }
+        }
+        ps.setInt(index, limit);
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标，为空时返回null
+     * @return 排序键值
+     */
+    public Object[] decodeCursor(Object cursor) {
+        if (cursor == null || !StringUtils.hasText(cursor.toString())) {
+            return null;
+        }
+        return CursorUtils.decode(cursor.toString(), columns.length);
+    }
+
+    /**
+     * 根据一行数据生成游标
+     *
+     * @param labels 列名
+     * @param values 与列名对应的值
+     * @return 游标
+     */
+    public String cursorOf(List<String> labels, Object[] values) {
+        Object[] key = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            int index = indexOf(labels, columns[i]);
+            if (index < 0) {
+                throw new BusinessException("游标排序键不在查询结果中：" + columns[i]);
+            }
+            key[i] = values[index];
+        }
+        return CursorUtils.encode(key);
+    }
+
+    private static int indexOf(List<String> labels, String column) {
+        for (int i = 0; i < labels.size(); i++) {
+            if (labels.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
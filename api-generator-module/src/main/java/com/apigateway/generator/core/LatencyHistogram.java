@@ -0,0 +1,92 @@
+package com.apigateway.generator.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁耗时直方图
+ * 按微秒以2的幂分桶（第 i 个桶为 [2^i, 2^(i+1)) 微秒），记录只做原子累加；
+ * 百分位取所在桶的上界，误差不超过一倍，用于监控展示
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * 桶数量，最后一个桶约为35分钟以上
+     */
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0L, nanos / 1000L);
+        int index = micros == 0 ? 0 : Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(index);
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    /**
+     * 记录次数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 平均耗时(毫秒)
+     */
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / 1000.0 / n;
+    }
+
+    /**
+     * 最大耗时(毫秒)
+     */
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * 百分位耗时(毫秒)，取所在桶的上界
+     *
+     * @param percentile 百分位（0-100）
+     * @return 耗时(毫秒)，无记录时为0
+     */
+    public double getPercentileMillis(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min((1L << (i + 1)) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+}
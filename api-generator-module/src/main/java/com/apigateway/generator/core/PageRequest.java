@@ -0,0 +1,91 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.exception.BusinessException;
+
+import java.util.Map;
+
+/**
+ * 分页请求
+ * 调用方传入 pageNum/pageSize 时，查询在数据库端按方言分页
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class PageRequest {
+
+    /**
+     * 页码，从1开始
+     */
+    private final long pageNum;
+
+    /**
+     * 每页大小
+     */
+    private final int pageSize;
+
+    /**
+     * 是否查询总数
+     */
+    private final boolean count;
+
+    private PageRequest(long pageNum, int pageSize, boolean count) {
+        this.pageNum = pageNum;
+        this.pageSize = pageSize;
+        this.count = count;
+    }
+
+    /**
+     * 解析分页参数
+     * SQL自身引用了 pageNum/pageSize 时视为自行分页，不做下推
+     *
+     * @param compiledSql 编译后的SQL
+     * @param params 请求参数
+     * @param maxPageSize 每页最大行数
+     * @return 分页请求，未分页时返回null
+     */
+    public static PageRequest of(CompiledSql compiledSql, Map<String, Object> params, int maxPageSize) {
+        if (params == null || !compiledSql.isQuery() || params.get(ApiRequestParams.PAGE_SIZE) == null
+                || compiledSql.getParamNameList().contains(ApiRequestParams.PAGE_NUM)
+                || compiledSql.getParamNameList().contains(ApiRequestParams.PAGE_SIZE)) {
+            return null;
+        }
+        long pageNum = parse(params.get(ApiRequestParams.PAGE_NUM), 1);
+        long pageSize = parse(params.get(ApiRequestParams.PAGE_SIZE), 0);
+        if (pageNum < 1 || pageSize < 1) {
+            throw new BusinessException("分页参数错误：pageNum、pageSize须为正整数");
+        }
+        Object count = params.get(ApiRequestParams.COUNT);
+        return new PageRequest(pageNum, (int) Math.min(pageSize, maxPageSize),
+                count == null || !"false".equalsIgnoreCase(count.toString()));
+    }
+
+    private static long parse(Object value, long defaultValue) {
+        if (value == null || value.toString().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new BusinessException("分页参数错误：" + value);
+        }
+    }
+
+    public long getPageNum() {
+        return pageNum;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isCount() {
+        return count;
+    }
+
+    /**
+     * 起始偏移量
+     */
+    public long getOffset() {
+        return (pageNum - 1) * pageSize;
+    }
+}
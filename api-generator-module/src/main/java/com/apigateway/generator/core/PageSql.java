@@ -0,0 +1,120 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.datasource.core.DatabaseType;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+
+/**
+ * 方言分页SQL
+ * 在编译后的SQL末尾追加分页占位符，分页值绑定在SQL参数之后：
+ * MySQL/达梦/PostgreSQL 使用 LIMIT ? OFFSET ?，Oracle 使用 ROWNUM，SQL Server 使用 OFFSET/FETCH
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class PageSql {
+
+    /**
+     * 末尾分号
+     */
+    private static final Pattern TRAILING_SEMICOLON = Pattern.compile("[;\\s]+$");
+
+    /**
+     * 末尾已有的LIMIT子句
+     */
+    private static final Pattern TRAILING_LIMIT = Pattern.compile(
+            "(?is).*\\blimit\\s+(\\d+|\\?)(\\s*(,|\\boffset\\b)\\s*(\\d+|\\?))?\\s*$");
+
+    /**
+     * ORDER BY子句
+     */
+    private static final Pattern ORDER_BY = Pattern.compile("(?is).*\\border\\s+by\\b.*");
+
+    /**
+     * 分页SQL
+     */
+    private final String sql;
+
+    /**
+     * 计数SQL
+     */
+    private final String countSql;
+
+    /**
+     * 数据库类型
+     */
+    private final DatabaseType databaseType;
+
+    private PageSql(String sql, String countSql, DatabaseType databaseType) {
+        this.sql = sql;
+        this.countSql = countSql;
+        this.databaseType = databaseType;
+    }
+
+    /**
+     * 生成分页SQL和计数SQL
+     *
+     * @param compiledSql 编译后的查询SQL
+     * @param databaseType 数据库类型，未知时按 LIMIT/OFFSET 处理
+     * @return 分页SQL
+     */
+    public static PageSql of(CompiledSql compiledSql, DatabaseType databaseType) {
+        String sql = TRAILING_SEMICOLON.matcher(compiledSql.getSql()).replaceAll("");
+        String countSql = "SELECT COUNT(*) FROM (" + sql + ") count_t";
+        if (databaseType == DatabaseType.ORACLE) {
+            return new PageSql("SELECT * FROM (SELECT page_t.*, ROWNUM page_rn FROM (" + sql
+                    + ") page_t WHERE ROWNUM <= ?) WHERE page_rn > ?", countSql, databaseType);
+        }
+        if (databaseType == DatabaseType.SQLSERVER) {
+            // SQL Server 的 OFFSET/FETCH 必须跟在 ORDER BY 之后
+            String ordered = ORDER_BY.matcher(sql).matches() ? sql : sql + " ORDER BY (SELECT NULL)";
+            return new PageSql(ordered + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", countSql, databaseType);
+        }
+        // 模板自带LIMIT时包一层子查询，避免出现两个LIMIT
+        String limited = TRAILING_LIMIT.matcher(sql).matches()
+                ? "SELECT * FROM (" + sql + ") page_t LIMIT ? OFFSET ?"
+                : sql + " LIMIT ? OFFSET ?";
+        return new PageSql(limited, countSql, databaseType);
+    }
+
+    /**
+     * 绑定分页参数
+     *
+     * @param ps 分页SQL预编译语句
+     * @param index 第一个分页占位符的位置（SQL参数个数 + 1）
+     * @param page 分页请求
+     */
+    public void bind(PreparedStatement ps, int index, PageRequest page) throws SQLException {
+        if (databaseType == DatabaseType.ORACLE) {
+            ps.setLong(index, page.getOffset() + page.getPageSize());
+            ps.setLong(index + 1, page.getOffset());
+        } else if (databaseType == DatabaseType.SQLSERVER) {
+            ps.setLong(index, page.getOffset());
+            ps.setInt(index + 1, page.getPageSize());
+        } else {
+            ps.setInt(index, page.getPageSize());
+            ps.setLong(index + 1, page.getOffset());
+        }
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getCountSql() {
+        return countSql;
+    }
+
+    public DatabaseType getDatabaseType() {
+        return databaseType;
+    }
+
+    /**
+     * 分页SQL在结果末尾追加的辅助列数（Oracle的行号列），输出时需去掉
+     */
+    public int getExtraColumns() {
+        return databaseType == DatabaseType.ORACLE ? 1 : 0;
+    }
+}
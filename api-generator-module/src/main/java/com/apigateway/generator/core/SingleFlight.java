@@ -0,0 +1,103 @@
+package com.apigateway.generator.core;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 请求合并（single-flight）
+ * 相同键的并发调用只执行一次，其余调用等待并共享同一结果
+ *
+ * @param <K> 键类型
+ * @param <V> 结果类型
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class SingleFlight<K, V> {
+
+    /**
+     * 执行中的调用
+     */
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 实际执行次数
+     */
+    private final LongAdder executions = new LongAdder();
+
+    /**
+     * 被合并的调用次数
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * 执行调用；已有相同键的调用在执行时等待其结果
+     *
+     * @param key 键
+     * @param loader 实际执行逻辑
+     * @return 结果
+     * @throws Exception 执行异常（合并的调用收到同一异常）
+     */
+    public V execute(K key, Callable<V> loader) throws Exception {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.call();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 实际执行次数
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * 被合并的调用次数
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 当前执行中的调用数
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
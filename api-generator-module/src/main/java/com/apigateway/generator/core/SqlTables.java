@@ -0,0 +1,90 @@
+package com.apigateway.generator.core;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL表名提取
+ * 从SQL中提取涉及的表名作为缓存标签，用于写操作后失效相关查询缓存；
+ * 解析为近似实现，多提取的表名只会造成多余的失效
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class SqlTables {
+
+    /**
+     * 表引用关键字
+     */
+    private static final Pattern TABLE_KEYWORD = Pattern.compile("\\b(FROM|JOIN|UPDATE|INTO)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * FROM子句结束位置
+     */
+    private static final Pattern FROM_CLAUSE_END = Pattern.compile(
+            "\\b(WHERE|GROUP|ORDER|HAVING|LIMIT|UNION|JOIN|LEFT|RIGHT|INNER|OUTER|CROSS|ON|FOR)\\b|[;)]",
+            Pattern.CASE_INSENSITIVE);
+
+    private SqlTables() {
+    }
+
+    /**
+     * 提取SQL涉及的表名（小写，不含库名和引号）
+     *
+     * @param sql SQL
+     * @return 表名集合
+     */
+    public static Set<String> parse(String sql) {
+        if (sql == null || sql.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_KEYWORD.matcher(sql);
+        while (matcher.find()) {
+            int start = matcher.end();
+            if ("FROM".equalsIgnoreCase(matcher.group(1))) {
+                // FROM a x, b y 形式的逗号分隔表列表
+                Matcher end = FROM_CLAUSE_END.matcher(sql);
+                int clauseEnd = end.find(start) ? end.start() : sql.length();
+                for (String item : sql.substring(start, clauseEnd).split(",")) {
+                    addTable(tables, item);
+                }
+            } else {
+                addTable(tables, sql.substring(start));
+            }
+        }
+        return Collections.unmodifiableSet(tables);
+    }
+
+    /**
+     * 取片段中的第一个标识符作为表名
+     */
+    private static void addTable(Set<String> tables, String fragment) {
+        String text = fragment.trim();
+        if (text.isEmpty() || text.charAt(0) == '(') {
+            // 子查询
+            return;
+        }
+        int end = 0;
+        while (end < text.length()) {
+            char c = text.charAt(end);
+            if (Character.isWhitespace(c) || c == '(' || c == ')' || c == ',' || c == ';') {
+                break;
+            }
+            end++;
+        }
+        String name = text.substring(0, end);
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) {
+            name = name.substring(dot + 1);
+        }
+        name = name.replace("`", "").replace("\"", "").replace("[", "").replace("]", "");
+        if (!name.isEmpty() && !name.startsWith("$") && !"?".equals(name)) {
+            tables.add(name.toLowerCase());
+        }
+    }
+}
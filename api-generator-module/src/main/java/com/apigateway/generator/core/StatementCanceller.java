@@ -0,0 +1,103 @@
+package com.apigateway.generator.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 语句取消句柄
+ * 查询执行时登记当前语句，其他线程可随时取消；取消后再登记的语句直接失败
+ * 语句执行完毕须注销登记：开启PSCache时语句关闭后会被复用，取消已注销的语句会误伤其他请求
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+public final class StatementCanceller {
+
+    /**
+     * 执行中的语句
+     */
+    private final Set<Statement> statements = new LinkedHashSet<>();
+
+    /**
+     * 子句柄（如对冲读取的各路查询），随本句柄一起取消
+     */
+    private final List<StatementCanceller> children = new ArrayList<>();
+
+    /**
+     * 是否已取消
+     */
+    private boolean cancelled;
+
+    /**
+     * 登记即将执行的语句
+     *
+     * @param statement 语句
+     * @throws SQLException 已取消时抛出
+     */
+    public synchronized void register(Statement statement) throws SQLException {
+        if (cancelled) {
+            throw new SQLException("查询已取消");
+        }
+        statements.add(statement);
+    }
+
+    /**
+     * 注销执行完毕的语句
+     *
+     * @param statement 语句
+     */
+    public synchronized void unregister(Statement statement) {
+        statements.remove(statement);
+    }
+
+    /**
+     * 创建子句柄，本句柄已取消时子句柄直接处于取消状态
+     *
+     * @return 子句柄
+     */
+    public synchronized StatementCanceller child() {
+        StatementCanceller child = new StatementCanceller();
+        if (cancelled) {
+            child.cancel();
+        } else {
+            children.add(child);
+        }
+        return child;
+    }
+
+    /**
+     * 是否已取消
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 取消执行中的语句及子句柄
+     */
+    public synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.debug("取消语句失败：{}", e.getMessage());
+            }
+        }
+        statements.clear();
+        for (StatementCanceller child : children) {
+            child.cancel();
+        }
+        children.clear();
+    }
+}
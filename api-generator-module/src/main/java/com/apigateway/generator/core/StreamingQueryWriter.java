@@ -0,0 +1,188 @@
+package com.apigateway.generator.core;
+
+import com.alibaba.fastjson2.JSONWriter;
+import com.apigateway.common.core.Result;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 流式查询结果输出
+ * 将ResultSet逐行写入输出流，不构建中间的List/Map，单个请求的内存占用与结果集大小无关；
+ * 输出保持 Result + ApiExecuteResult 的响应结构，紧凑格式下输出 columns + rows
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public final class StreamingQueryWriter {
+
+    /**
+     * 缓冲区达到该大小时写出到输出流
+     */
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private StreamingQueryWriter() {
+    }
+
+    /**
+     * 输出完整的响应结果（错误或非查询结果）
+     *
+     * @param result 响应结果
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public static void writeResult(Result<?> result, OutputStream out) throws IOException {
+        try (JSONWriter writer = JSONWriter.ofUTF8()) {
+            writer.writeAny(result);
+            writer.flushTo(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * 逐行输出查询结果
+     * 结果先写入缓冲区，达到阈值后才写出到输出流；输出过程中发生的SQL异常会直接抛出，
+     * 已写出部分结果时客户端收到的是不完整的JSON，尚未写出时调用方可改为输出错误结果（见 {@link WrittenOutputStream}）
+     *
+     * @param rs 结果集
+     * @param startTime 开始时间
+     * @param compact 是否紧凑格式
+     * @param out 输出流
+     * @throws SQLException SQL异常
+     * @throws IOException IO异常
+     */
+    public static void writeQuery(ResultSet rs, long startTime, boolean compact, OutputStream out)
+            throws SQLException, IOException {
+        Result<Void> envelope = Result.success();
+
+        try (JSONWriter writer = JSONWriter.ofUTF8()) {
+            writer.startObject();
+            writer.writeName("code");
+            writer.writeColon();
+            writer.writeInt32(envelope.getCode());
+            writer.writeName("message");
+            writer.writeColon();
+            writer.writeString(envelope.getMessage());
+            writer.writeName("data");
+            writer.writeColon();
+
+            writer.startObject();
+            writer.writeName("success");
+            writer.writeColon();
+            writer.writeBool(true);
+            ColumnReader[] readers = ColumnReader.of(rs.getMetaData());
+            if (compact) {
+                writer.writeName("columns");
+                writer.writeColon();
+                writeColumns(readers, writer);
+                writer.writeName("rows");
+                writer.writeColon();
+            } else {
+                writer.writeName("data");
+                writer.writeColon();
+            }
+            writeRows(rs, readers, compact, writer, out);
+            writer.writeName("executeTime");
+            writer.writeColon();
+            writer.writeInt64(System.currentTimeMillis() - startTime);
+            writer.endObject();
+
+            writer.writeName("timestamp");
+            writer.writeColon();
+            writer.writeInt64(envelope.getTimestamp());
+            writer.endObject();
+
+            writer.flushTo(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * 记录是否已有数据写出的输出流
+     */
+    public static final class WrittenOutputStream extends FilterOutputStream {
+
+        private boolean written;
+
+        public WrittenOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            written = true;
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                written = true;
+            }
+            out.write(b, off, len);
+        }
+
+        /**
+         * 是否已有数据写出（响应可能已提交给客户端）
+         */
+        public boolean isWritten() {
+            return written;
+        }
+    }
+
+    /**
+     * 输出列名数组
+     */
+    private static void writeColumns(ColumnReader[] readers, JSONWriter writer) {
+        writer.startArray();
+        for (int i = 0; i < readers.length; i++) {
+            if (i > 0) {
+                writer.writeComma();
+            }
+            writer.writeString(readers[i].getName());
+        }
+        writer.endArray();
+    }
+
+    /**
+     * 输出数据行数组，紧凑格式下每行为值数组
+     */
+    private static void writeRows(ResultSet rs, ColumnReader[] readers, boolean compact,
+                                  JSONWriter writer, OutputStream out) throws SQLException, IOException {
+        writer.startArray();
+        boolean first = true;
+        while (rs.next()) {
+            if (!first) {
+                writer.writeComma();
+            }
+            first = false;
+
+            if (compact) {
+                writer.startArray();
+                for (int i = 0; i < readers.length; i++) {
+                    if (i > 0) {
+                        writer.writeComma();
+                    }
+                    readers[i].write(rs, writer);
+                }
+                writer.endArray();
+            } else {
+                writer.startObject();
+                for (ColumnReader reader : readers) {
+                    writer.writeName(reader.getName());
+                    writer.writeColon();
+                    reader.write(rs, writer);
+                }
+                writer.endObject();
+            }
+
+            if (writer.size() >= FLUSH_THRESHOLD) {
+                writer.flushTo(out);
+            }
+        }
+        writer.endArray();
+    }
+}
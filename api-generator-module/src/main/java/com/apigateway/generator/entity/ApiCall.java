@@ -0,0 +1,30 @@
+package com.apigateway.generator.entity;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 组合执行中的单个API调用
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class ApiCall {
+
+    /**
+     * API路径（与 /api/apis/execute 之后的路径相同）
+     */
+    private String path;
+
+    /**
+     * 请求方法，默认POST
+     */
+    private String method;
+
+    /**
+     * 请求参数
+     */
+    private Map<String, Object> params;
+}
@@ -0,0 +1,61 @@
+package com.apigateway.generator.entity;
+
+import lombok.Data;
+
+/**
+ * 组合执行中单个API调用的结果
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class ApiCallResult {
+
+    /**
+     * API路径
+     */
+    private String path;
+
+    /**
+     * 请求方法
+     */
+    private String method;
+
+    /**
+     * 状态码：200-成功，500-执行失败，503-服务繁忙
+     */
+    private Integer code;
+
+    /**
+     * 错误信息
+     */
+    private String message;
+
+    /**
+     * 执行结果
+     */
+    private ApiExecuteResult data;
+
+    /**
+     * 调用耗时(ms)，包含排队时间
+     */
+    private Long elapsedTime;
+
+    /**
+     * 创建调用结果
+     *
+     * @param path API路径
+     * @param method 实际使用的请求方法
+     */
+    public static ApiCallResult of(String path, String method, Integer code, String message,
+                                   ApiExecuteResult data, long startTime) {
+        ApiCallResult result = new ApiCallResult();
+        result.setPath(path);
+        result.setMethod(method);
+        result.setCode(code);
+        result.setMessage(message);
+        result.setData(data);
+        result.setElapsedTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+}
@@ -2,6 +2,8 @@ package com.apigateway.generator.entity;
 
 import lombok.Data;
 
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -24,21 +26,61 @@ public class ApiExecuteResult {
      */
     private String errorMessage;
 
+    /**
+     * 错误码，为空时按一般错误处理（如熔断时为503）
+     */
+    private Integer errorCode;
+
     /**
      * 执行的SQL
      */
     private String sql;
 
     /**
-     * 影响行数
+     * 影响行数，批量执行中有参数组未返回行数时为空
      */
     private Integer affectedRows;
 
+    /**
+     * 批量执行每组参数的影响行数，成功但驱动未返回行数时为空（如MySQL开启批量重写后的合并执行）
+     */
+    private List<Integer> itemAffectedRows;
+
     /**
      * 查询结果列表
      */
     private List<Map<String, Object>> data;
 
+    /**
+     * 列名（紧凑格式）
+     */
+    private List<String> columns;
+
+    /**
+     * 行数据（紧凑格式，与columns按位置对应）
+     */
+    private List<Object[]> rows;
+
+    /**
+     * 总行数（分页查询）
+     */
+    private Long total;
+
+    /**
+     * 页码（分页查询）
+     */
+    private Long pageNum;
+
+    /**
+     * 每页大小（分页查询）
+     */
+    private Integer pageSize;
+
+    /**
+     * 下一页游标（键集分页），没有更多数据时为空
+     */
+    private String nextCursor;
+
     /**
      * 执行时长(ms)
      */
@@ -55,6 +97,18 @@ public class ApiExecuteResult {
         return result;
     }
 
+    /**
+     * 创建紧凑格式结果
+     */
+    public static ApiExecuteResult compact(List<String> columns, List<Object[]> rows, Long executeTime) {
+        ApiExecuteResult result = new ApiExecuteResult();
+        result.setSuccess(true);
+        result.setColumns(columns);
+        result.setRows(rows);
+        result.setExecuteTime(executeTime);
+        return result;
+    }
+
     /**
      * 创建失败结果
      */
@@ -65,6 +119,39 @@ public class ApiExecuteResult {
         return result;
     }
 
+    /**
+     * 创建带错误码的失败结果
+     */
+    public static ApiExecuteResult error(Integer errorCode, String errorMessage) {
+        ApiExecuteResult result = error(errorMessage);
+        result.setErrorCode(errorCode);
+        return result;
+    }
+
+    /**
+     * 创建批量执行结果
+     */
+    public static ApiExecuteResult batch(int[] itemAffectedRows, Long executeTime) {
+        ApiExecuteResult result = new ApiExecuteResult();
+        result.setSuccess(true);
+        List<Integer> items = new ArrayList<>(itemAffectedRows.length);
+        int affectedRows = 0;
+        boolean unknown = false;
+        for (int count : itemAffectedRows) {
+            if (count == Statement.SUCCESS_NO_INFO) {
+                items.add(null);
+                unknown = true;
+            } else {
+                items.add(count);
+                affectedRows += Math.max(0, count);
+            }
+        }
+        result.setAffectedRows(unknown ? null : affectedRows);
+        result.setItemAffectedRows(items);
+        result.setExecuteTime(executeTime);
+        return result;
+    }
+
     /**
      * 创建更新/删除结果
      */
@@ -0,0 +1,68 @@
+package com.apigateway.generator.entity;
+
+import lombok.Data;
+
+/**
+ * API执行统计
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class ApiExecuteStats {
+
+    /**
+     * 结果缓存命中次数
+     */
+    private Long cacheHits;
+
+    /**
+     * 结果缓存未命中次数
+     */
+    private Long cacheMisses;
+
+    /**
+     * 查询实际执行次数
+     */
+    private Long queryExecutions;
+
+    /**
+     * 合并到相同查询的请求数（节省的数据库执行次数）
+     */
+    private Long queryCoalesced;
+
+    /**
+     * 当前执行中的查询数
+     */
+    private Integer queryInFlight;
+
+    /**
+     * 执行线程池中正在执行的任务数
+     */
+    private Integer executorActive;
+
+    /**
+     * 执行线程池中排队的任务数
+     */
+    private Integer executorQueued;
+
+    /**
+     * 执行线程池队列满被拒绝的请求数
+     */
+    private Long executorRejected;
+
+    /**
+     * 发起的对冲读取请求数
+     */
+    private Long hedges;
+
+    /**
+     * 对冲请求先于首选读库返回的次数
+     */
+    private Long hedgeWins;
+
+    /**
+     * 因对冲预算不足或线程占满放弃的对冲数
+     */
+    private Long hedgeSkipped;
+}
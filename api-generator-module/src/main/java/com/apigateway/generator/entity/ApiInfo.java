@@ -98,4 +98,40 @@ public class ApiInfo extends BaseEntity {
      */
     @TableField("response_example")
     private String responseExample;
+
+    /**
+     * 是否缓存查询结果：0-否，1-是
+     */
+    @TableField("cache_enabled")
+    private Integer cacheEnabled;
+
+    /**
+     * 结果缓存时间(秒)
+     */
+    @TableField("cache_ttl")
+    private Integer cacheTtl;
+
+    /**
+     * 查询超时时间(秒)，为空时使用全局默认值
+     */
+    @TableField("query_timeout")
+    private Integer queryTimeout;
+
+    /**
+     * 最大返回行数，为空时使用全局默认值
+     */
+    @TableField("max_rows")
+    private Integer maxRows;
+
+    /**
+     * 游标排序键，如 "create_time DESC, id DESC"，配置后分页查询使用键集分页
+     */
+    @TableField("keyset_columns")
+    private String keysetColumns;
+
+    /**
+     * 是否开启对冲读取：0-否，1-是（仅用于幂等查询，需数据源配置多个读库）
+     */
+    @TableField("hedge_enabled")
+    private Integer hedgeEnabled;
 }
@@ -0,0 +1,43 @@
+package com.apigateway.generator.entity;
+
+import lombok.Data;
+
+/**
+ * 熔断器状态
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class CircuitBreakerStatus {
+
+    /**
+     * 熔断器名称（datasource:数据源ID / api:API ID）
+     */
+    private String name;
+
+    /**
+     * 状态：CLOSED/OPEN/HALF_OPEN
+     */
+    private String state;
+
+    /**
+     * 窗口内失败率(%)
+     */
+    private Double failureRate;
+
+    /**
+     * 窗口内慢调用率(%)
+     */
+    private Double slowCallRate;
+
+    /**
+     * 窗口内调用数
+     */
+    private Integer bufferedCalls;
+
+    /**
+     * 熔断期间被拒绝的调用数
+     */
+    private Long notPermittedCalls;
+}
@@ -0,0 +1,38 @@
+package com.apigateway.generator.entity;
+
+import lombok.Data;
+
+/**
+ * 数据源并发限制状态
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class ConcurrencyLimitStatus {
+
+    /**
+     * 数据源名称（datasource:数据源ID）
+     */
+    private String name;
+
+    /**
+     * 当前并发上限
+     */
+    private Integer limit;
+
+    /**
+     * 执行中的请求数
+     */
+    private Integer inFlight;
+
+    /**
+     * 无负载RTT估计(毫秒)
+     */
+    private Double minRttMillis;
+
+    /**
+     * 超过上限被拒绝的请求数
+     */
+    private Long rejected;
+}
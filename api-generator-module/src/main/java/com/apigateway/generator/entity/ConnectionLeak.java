@@ -0,0 +1,50 @@
+package com.apigateway.generator.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 连接持有超时记录（疑似泄漏）
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class ConnectionLeak {
+
+    /**
+     * API ID
+     */
+    private Long apiId;
+
+    /**
+     * 借出连接的线程
+     */
+    private String thread;
+
+    /**
+     * 借出时间
+     */
+    private LocalDateTime borrowTime;
+
+    /**
+     * 发现时已持有的时间(毫秒)
+     */
+    private Long heldMillis;
+
+    /**
+     * 是否已归还
+     */
+    private Boolean released;
+
+    /**
+     * 归还时的总持有时间(毫秒)，未归还时为空
+     */
+    private Long releasedAfterMillis;
+
+    /**
+     * 借出连接时的调用堆栈
+     */
+    private String stackTrace;
+}
@@ -0,0 +1,63 @@
+package com.apigateway.generator.entity;
+
+import lombok.Data;
+
+/**
+ * API连接使用统计
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class ConnectionUsageStats {
+
+    /**
+     * API ID
+     */
+    private Long apiId;
+
+    /**
+     * 当前持有的连接数
+     */
+    private Long held;
+
+    /**
+     * 借用次数
+     */
+    private Long borrows;
+
+    /**
+     * 平均借用等待时间(毫秒)
+     */
+    private Double waitMeanMillis;
+
+    /**
+     * 借用等待时间P99(毫秒)
+     */
+    private Double waitP99Millis;
+
+    /**
+     * 最大借用等待时间(毫秒)
+     */
+    private Double waitMaxMillis;
+
+    /**
+     * 平均持有时间(毫秒)
+     */
+    private Double holdMeanMillis;
+
+    /**
+     * 持有时间P99(毫秒)
+     */
+    private Double holdP99Millis;
+
+    /**
+     * 最大持有时间(毫秒)
+     */
+    private Double holdMaxMillis;
+
+    /**
+     * 持有超过阈值的次数
+     */
+    private Long leaks;
+}
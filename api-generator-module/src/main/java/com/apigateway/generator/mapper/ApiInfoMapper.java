@@ -18,12 +18,38 @@ import java.util.Map;
 @Mapper
 public interface ApiInfoMapper extends BaseMapper<ApiInfo> {
 
+    /**
+     * 路由表所需字段（不包含描述、请求/响应示例等大字段）
+     */
+    String ROUTE_COLUMNS = "id, api_name, api_path, api_method, datasource_id, sql_content, "
+            + "need_auth, encrypt_type, status, version, cache_enabled, cache_ttl, query_timeout, max_rows, keyset_columns, hedge_enabled";
+
     /**
      * 根据API路径和方法查询API
      */
     @Select("SELECT * FROM api_info WHERE api_path = #{apiPath} AND api_method = #{apiMethod} AND status = 1")
     ApiInfo selectByPathAndMethod(@Param("apiPath") String apiPath, @Param("apiMethod") String apiMethod);
 
+    /**
+     * 查询全部已发布API（用于加载路由表）
+     * 按更新时间排序，同一路由键有多个已发布API时后更新的排在后面并生效
+     */
+    @Select("SELECT " + ROUTE_COLUMNS + " FROM api_info WHERE status = 1 AND deleted = 0 ORDER BY update_time, id")
+    List<ApiInfo> selectPublishedRoutes();
+
+    /**
+     * 根据路径查询已发布API（用于重建路由键），排序同 selectPublishedRoutes
+     */
+    @Select("SELECT " + ROUTE_COLUMNS + " FROM api_info WHERE api_path = #{apiPath} AND status = 1 AND deleted = 0 "
+            + "ORDER BY update_time, id")
+    List<ApiInfo> selectPublishedRoutesByPath(@Param("apiPath") String apiPath);
+
+    /**
+     * 根据ID查询已发布API（用于刷新路由表）
+     */
+    @Select("SELECT " + ROUTE_COLUMNS + " FROM api_info WHERE id = #{id} AND status = 1 AND deleted = 0")
+    ApiInfo selectPublishedRouteById(@Param("id") Long id);
+
     /**
      * 执行查询SQL
      */
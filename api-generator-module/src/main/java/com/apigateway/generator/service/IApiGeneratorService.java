@@ -1,10 +1,22 @@
 package com.apigateway.generator.service;
 
+import com.apigateway.common.core.CursorPage;
+import com.apigateway.generator.entity.ApiCall;
+import com.apigateway.generator.entity.ApiCallResult;
 import com.apigateway.generator.entity.ApiExecuteResult;
+import com.apigateway.generator.entity.ApiExecuteStats;
 import com.apigateway.generator.entity.ApiInfo;
+import com.apigateway.generator.entity.CircuitBreakerStatus;
+import com.apigateway.generator.entity.ConcurrencyLimitStatus;
+import com.apigateway.generator.entity.ConnectionLeak;
+import com.apigateway.generator.entity.ConnectionUsageStats;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API生成服务接口
@@ -24,11 +36,39 @@ public interface IApiGeneratorService {
      */
     ApiExecuteResult executeApi(String path, String method, Map<String, Object> params);
 
+    /**
+     * 异步执行API，SQL在API所属数据源的独立线程池中运行
+     *
+     * @throws java.util.concurrent.RejectedExecutionException 数据源线程池队列已满
+     */
+    CompletableFuture<ApiExecuteResult> executeApiAsync(String path, String method, Map<String, Object> params);
+
+    /**
+     * 组合执行多个API，各调用在所属数据源的线程池中并行执行，结果按调用顺序返回
+     */
+    CompletableFuture<List<ApiCallResult>> executeApiComposite(List<ApiCall> calls);
+
+    /**
+     * 批量执行写操作API，多组参数在一个事务内分批提交
+     */
+    ApiExecuteResult executeApiBatch(String path, String method, List<Map<String, Object>> items);
+
+    /**
+     * 流式执行API，查询结果逐行写入输出流
+     */
+    void executeApiStream(String path, String method, Map<String, Object> params, OutputStream out)
+            throws IOException;
+
     /**
      * 分页查询API列表
      */
     IPage<ApiInfo> pageApis(Integer pageNum, Integer pageSize, Integer status, String apiName);
 
+    /**
+     * 游标分页查询API列表（按创建时间、ID倒序）
+     */
+    CursorPage<ApiInfo> scrollApis(String cursor, Integer pageSize, Integer status, String apiName);
+
     /**
      * 创建API
      */
@@ -53,4 +93,29 @@ public interface IApiGeneratorService {
      * 下线API
      */
     boolean offlineApi(Long id);
+
+    /**
+     * 获取API执行统计（缓存命中、查询合并）
+     */
+    ApiExecuteStats getExecuteStats();
+
+    /**
+     * 获取数据源和API熔断器状态
+     */
+    List<CircuitBreakerStatus> getCircuitBreakers();
+
+    /**
+     * 获取数据源自适应并发限制状态
+     */
+    List<ConcurrencyLimitStatus> getConcurrencyLimits();
+
+    /**
+     * 获取各API的连接借用等待、持有时间和当前持有数
+     */
+    List<ConnectionUsageStats> getConnectionUsage();
+
+    /**
+     * 获取最近的连接持有超时（疑似泄漏）记录
+     */
+    List<ConnectionLeak> getConnectionLeaks();
 }
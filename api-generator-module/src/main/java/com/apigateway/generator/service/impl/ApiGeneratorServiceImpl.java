@@ -1,9 +1,41 @@
 package com.apigateway.generator.service.impl;
 
+import com.apigateway.common.constant.ResponseCode;
+import com.apigateway.common.core.CursorPage;
+import com.apigateway.common.core.Result;
 import com.apigateway.common.exception.BusinessException;
+import com.apigateway.common.util.CursorUtils;
+import com.apigateway.datasource.core.DataSourceContextHolder;
+import com.apigateway.datasource.core.DatabaseType;
 import com.apigateway.datasource.manager.DataSourceManager;
+import com.apigateway.generator.core.AdaptiveLimiterRegistry;
+import com.apigateway.generator.core.ApiExecutorRegistry;
+import com.apigateway.generator.core.CircuitBreakerRegistry;
+import com.apigateway.generator.core.ApiRoute;
+import com.apigateway.generator.core.ApiRequestParams;
+import com.apigateway.generator.core.ApiRouteRegistry;
+import com.apigateway.generator.core.ApiWarmup;
+import com.apigateway.generator.core.ColumnReader;
+import com.apigateway.generator.core.ConnectionTracker;
+import com.apigateway.generator.core.HedgedReads;
+import com.apigateway.generator.cache.ApiResultCache;
+import com.apigateway.generator.config.ApiExecuteProperties;
+import com.apigateway.generator.core.CompiledSql;
+import com.apigateway.generator.core.KeysetSql;
+import com.apigateway.generator.core.PageRequest;
+import com.apigateway.generator.core.PageSql;
+import com.apigateway.generator.core.SingleFlight;
+import com.apigateway.generator.core.StatementCanceller;
+import com.apigateway.generator.core.StreamingQueryWriter;
+import com.apigateway.generator.entity.ApiCall;
+import com.apigateway.generator.entity.ApiCallResult;
 import com.apigateway.generator.entity.ApiExecuteResult;
+import com.apigateway.generator.entity.ApiExecuteStats;
 import com.apigateway.generator.entity.ApiInfo;
+import com.apigateway.generator.entity.CircuitBreakerStatus;
+import com.apigateway.generator.entity.ConcurrencyLimitStatus;
+import com.apigateway.generator.entity.ConnectionLeak;
+import com.apigateway.generator.entity.ConnectionUsageStats;
 import com.apigateway.generator.mapper.ApiInfoMapper;
 import com.apigateway.generator.service.IApiGeneratorService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
@@ -14,16 +46,32 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * API生成服务实现类
@@ -41,21 +89,102 @@ public class ApiGeneratorServiceImpl extends ServiceImpl<ApiInfoMapper, ApiInfo>
     @Autowired
     private DataSourceManager dataSourceManager;
 
+    @Autowired
+    private ApiRouteRegistry apiRouteRegistry;
+
+    @Autowired
+    private ApiExecuteProperties apiExecuteProperties;
+
+    @Autowired
+    private ApiResultCache apiResultCache;
+
+    @Autowired
+    private ApiExecutorRegistry apiExecutorRegistry;
+
+    @Autowired
+    private HedgedReads hedgedReads;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private AdaptiveLimiterRegistry adaptiveLimiters;
+
+    @Autowired
+    private ApiWarmup apiWarmup;
+
+    @Autowired
+    private ConnectionTracker connectionTracker;
+
+    /**
+     * 执行中的查询，按请求键合并
+     */
+    private final SingleFlight<String, ApiExecuteResult> queryFlight = new SingleFlight<>();
+
     @Override
     public ApiInfo getApiByPathAndMethod(String path, String method) {
+        ApiRoute route = getRoute(path, method);
+        return route != null ? route.getApiInfo() : null;
+    }
+
+    /**
+     * 从内存路由表查找已发布API，不访问数据库
+     */
+    private ApiRoute getRoute(String path, String method) {
         if (!StringUtils.hasText(path) || !StringUtils.hasText(method)) {
             throw new BusinessException("API路径和方法不能为空");
         }
-        return apiInfoMapper.selectByPathAndMethod(path, method);
+        return apiRouteRegistry.lookup(method, path);
     }
 
     @Override
     public ApiExecuteResult executeApi(String path, String method, Map<String, Object> params) {
-        // 1. 获取API配置
-        ApiInfo apiInfo = getApiByPathAndMethod(path, method);
-        if (apiInfo == null) {
+        // 1. 获取API路由
+        ApiRoute route = getRoute(path, method);
+        if (route == null) {
             return ApiExecuteResult.error("API不存在或已下线");
         }
+        return executeRoute(route, params, new StatementCanceller());
+    }
+
+    @Override
+    public CompletableFuture<ApiExecuteResult> executeApiAsync(String path, String method,
+                                                               Map<String, Object> params) {
+        ApiRoute route = getRoute(path, method);
+        if (route == null) {
+            return CompletableFuture.completedFuture(ApiExecuteResult.error("API不存在或已下线"));
+        }
+        if (!apiExecuteProperties.getBulkhead().isEnabled()) {
+            return CompletableFuture.completedFuture(executeRoute(route, params, new StatementCanceller()));
+        }
+        // 熔断期间不占用执行线程池
+        if (circuitBreakers.isOpen(route.getApiInfo())) {
+            return CompletableFuture.completedFuture(
+                    ApiExecuteResult.error(ResponseCode.SERVICE_UNAVAILABLE, "服务熔断中，请稍后重试"));
+        }
+        // 在数据源独立的线程池中执行，队列满时抛出 RejectedExecutionException
+        Executor executor = apiExecutorRegistry.getExecutor(route.getApiInfo().getDatasourceId());
+        // 读写分离会话等数据源上下文随任务传递到执行线程
+        StatementCanceller canceller = new StatementCanceller();
+        CompletableFuture<ApiExecuteResult> future = CompletableFuture.supplyAsync(
+                () -> executeRoute(route, params, canceller), DataSourceContextHolder.wrap(executor));
+        // 调用方取消（请求超时、客户端断开）时取消执行中的语句，及时归还连接和执行线程
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                canceller.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 执行已发布API
+     *
+     * @param canceller 请求的语句取消句柄
+     */
+    private ApiExecuteResult executeRoute(ApiRoute route, Map<String, Object> params,
+                                          StatementCanceller canceller) {
+        ApiInfo apiInfo = route.getApiInfo();
 
         // 2. 验证API状态
         if (apiInfo.getStatus() != 1) {
@@ -65,22 +194,275 @@ public class ApiGeneratorServiceImpl extends ServiceImpl<ApiInfoMapper, ApiInfo>
         long startTime = System.currentTimeMillis();
 
         try {
-            // 3. 构建SQL
-            String sql = buildSql(apiInfo.getSqlContent(), params);
-
-            // 4. 执行SQL
-            String sqlType = getSqlType(sql);
-            if ("SELECT".equalsIgnoreCase(sqlType)) {
-                return executeQuery(sql, startTime);
+            // 3. 使用发布时编译的SQL模板执行
+            CompiledSql compiledSql = route.getCompiledSql();
+            if (compiledSql.isQuery()) {
+                return executeCachedQuery(route, params, startTime, canceller);
             } else {
-                return executeUpdate(sql, startTime);
+                ApiExecuteResult result = guarded(apiInfo,
+                        () -> executeUpdate(apiInfo, compiledSql, params, startTime, canceller));
+                // 写操作后失效涉及相同表的查询缓存
+                apiResultCache.invalidateTables(compiledSql.getTables());
+                return result;
             }
+        } catch (BusinessException e) {
+            log.warn("执行API失败：{}，{}", apiInfo.getApiPath(), e.getMessage());
+            return ApiExecuteResult.error(e.getCode(), "API执行失败：" + e.getMessage());
         } catch (Exception e) {
             log.error("执行API失败：{}", apiInfo.getApiPath(), e);
             return ApiExecuteResult.error("API执行失败：" + e.getMessage());
         }
     }
 
+    /**
+     * 执行查询，开启结果缓存的API先查缓存；
+     * 相同API和参数的并发查询合并为一次数据库执行
+     */
+    private ApiExecuteResult executeCachedQuery(ApiRoute route, Map<String, Object> params, long startTime,
+                                                StatementCanceller canceller) throws Exception {
+        ApiInfo apiInfo = route.getApiInfo();
+        boolean compact = ApiRequestParams.isCompact(params);
+        // 会话刚写入过时读主库，不使用缓存和合并查询，缓存或其他会话的结果可能来自落后于本次写入的读库
+        if (dataSourceManager.isReadPinned(apiInfo.getDatasourceId())) {
+            return guarded(apiInfo, () -> executeQuery(route, params, compact, startTime, canceller));
+        }
+        boolean cacheable = ApiResultCache.isCacheable(apiInfo);
+        String requestKey = ApiRequestParams.requestKey(route, params);
+
+        if (cacheable) {
+            ApiExecuteResult cached = apiResultCache.get(route, requestKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        while (true) {
+            try {
+                return queryFlight.execute(requestKey, () -> {
+                    try {
+                        if (!cacheable) {
+                            return guarded(apiInfo, () -> executeQuery(route, params, compact, startTime, canceller));
+                        }
+                        ApiResultCache.Snapshot snapshot = apiResultCache.snapshot(route);
+                        ApiExecuteResult result = guarded(apiInfo,
+                                () -> executeQuery(route, params, compact, startTime, canceller));
+                        apiResultCache.put(route, requestKey, snapshot, result);
+                        return result;
+                    } catch (Exception e) {
+                        if (canceller.isCancelled()) {
+                            throw new CancellationException("查询已取消");
+                        }
+                        throw e;
+                    }
+                });
+            } catch (CancellationException e) {
+                // 合并到的查询随发起它的请求一起取消，本请求未取消时重新执行
+                if (canceller.isCancelled()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public ApiExecuteStats getExecuteStats() {
+        ApiExecuteStats stats = new ApiExecuteStats();
+        stats.setCacheHits(apiResultCache.getHits());
+        stats.setCacheMisses(apiResultCache.getMisses());
+        stats.setQueryExecutions(queryFlight.getExecutions());
+        stats.setQueryCoalesced(queryFlight.getCoalesced());
+        stats.setQueryInFlight(queryFlight.getInFlight());
+        stats.setExecutorActive(apiExecutorRegistry.getActiveCount());
+        stats.setExecutorQueued(apiExecutorRegistry.getQueuedCount());
+        stats.setExecutorRejected(apiExecutorRegistry.getRejected());
+        stats.setHedges(hedgedReads.getHedges());
+        stats.setHedgeWins(hedgedReads.getHedgeWins());
+        stats.setHedgeSkipped(hedgedReads.getHedgeSkipped());
+        return stats;
+    }
+
+    @Override
+    public List<CircuitBreakerStatus> getCircuitBreakers() {
+        return circuitBreakers.getStatuses();
+    }
+
+    @Override
+    public List<ConcurrencyLimitStatus> getConcurrencyLimits() {
+        return adaptiveLimiters.getStatuses();
+    }
+
+    @Override
+    public List<ConnectionUsageStats> getConnectionUsage() {
+        return connectionTracker.getUsageStats();
+    }
+
+    @Override
+    public List<ConnectionLeak> getConnectionLeaks() {
+        return connectionTracker.getLeaks();
+    }
+
+    @Override
+    public CompletableFuture<List<ApiCallResult>> executeApiComposite(List<ApiCall> calls) {
+        if (calls == null || calls.isEmpty()) {
+            throw new BusinessException("组合调用不能为空");
+        }
+        int maxCalls = apiExecuteProperties.getCompositeMaxCalls();
+        if (calls.size() > maxCalls) {
+            throw new BusinessException("组合调用不能超过" + maxCalls + "个");
+        }
+
+        List<CompletableFuture<ApiCallResult>> futures = new ArrayList<>(calls.size());
+        for (ApiCall call : calls) {
+            futures.add(executeCall(call));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    List<ApiCallResult> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<ApiCallResult> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    /**
+     * 提交组合中的单个调用，失败只影响该调用的结果
+     */
+    private CompletableFuture<ApiCallResult> executeCall(ApiCall call) {
+        long startTime = System.currentTimeMillis();
+        // 未指定方法时默认POST，不修改调用方传入的对象
+        String method = StringUtils.hasText(call.getMethod()) ? call.getMethod() : "POST";
+        CompletableFuture<ApiExecuteResult> future;
+        try {
+            future = executeApiAsync(call.getPath(), method,
+                    call.getParams() != null ? call.getParams() : new HashMap<>());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ApiCallResult.of(call.getPath(), method,
+                    ResponseCode.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试", null, startTime));
+        } catch (BusinessException e) {
+            return CompletableFuture.completedFuture(ApiCallResult.of(call.getPath(), method,
+                    e.getCode(), e.getMessage(), null, startTime));
+        }
+        return future.handle((result, e) -> {
+            if (e != null) {
+                log.error("组合执行API失败：{}", call.getPath(), e);
+                return ApiCallResult.of(call.getPath(), method, ResponseCode.ERROR, "API执行失败", null, startTime);
+            }
+            if (!result.getSuccess()) {
+                Integer code = result.getErrorCode() != null ? result.getErrorCode() : ResponseCode.ERROR;
+                return ApiCallResult.of(call.getPath(), method, code, result.getErrorMessage(), result, startTime);
+            }
+            return ApiCallResult.of(call.getPath(), method, ResponseCode.SUCCESS, "操作成功", result, startTime);
+        });
+    }
+
+    @Override
+    public ApiExecuteResult executeApiBatch(String path, String method, List<Map<String, Object>> items) {
+        ApiRoute route = getRoute(path, method);
+        if (route == null) {
+            return ApiExecuteResult.error("API不存在或已下线");
+        }
+        CompiledSql compiledSql = route.getCompiledSql();
+        if (compiledSql.isQuery()) {
+            return ApiExecuteResult.error("批量执行仅支持写操作API");
+        }
+        if (items == null || items.isEmpty()) {
+            return ApiExecuteResult.error("批量参数不能为空");
+        }
+        int maxItems = apiExecuteProperties.getBatch().getMaxItems();
+        if (items.size() > maxItems) {
+            return ApiExecuteResult.error("批量参数不能超过" + maxItems + "组");
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            ApiExecuteResult result = guarded(route.getApiInfo(),
+                    () -> executeBatch(route.getApiInfo(), compiledSql, items, startTime));
+            // 写操作后失效涉及相同表的查询缓存
+            apiResultCache.invalidateTables(compiledSql.getTables());
+            return result;
+        } catch (BusinessException e) {
+            log.warn("批量执行API失败：{}，{}", route.getApiInfo().getApiPath(), e.getMessage());
+            return ApiExecuteResult.error(e.getCode(), "API批量执行失败：" + e.getMessage());
+        } catch (Exception e) {
+            log.error("批量执行API失败：{}", route.getApiInfo().getApiPath(), e);
+            return ApiExecuteResult.error("API批量执行失败：" + e.getMessage());
+        }
+    }
+
+    @Override
+    public void executeApiStream(String path, String method, Map<String, Object> params, OutputStream out)
+            throws IOException {
+        ApiRoute route = getRoute(path, method);
+        if (route == null) {
+            StreamingQueryWriter.writeResult(Result.error("API不存在或已下线"), out);
+            return;
+        }
+
+        // 非查询语句没有大结果集，按普通方式执行
+        CompiledSql compiledSql = route.getCompiledSql();
+        if (!compiledSql.isQuery()) {
+            ApiExecuteResult result = executeApi(path, method, params);
+            StreamingQueryWriter.writeResult(result.getSuccess()
+                    ? Result.success(result) : Result.error(result.getErrorMessage()), out);
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        StreamingQueryWriter.WrittenOutputStream output = new StreamingQueryWriter.WrittenOutputStream(out);
+        Long previousApiId = DataSourceContextHolder.getApiId();
+        DataSourceContextHolder.setApiId(route.getApiId());
+
+        // 并发限制和熔断覆盖借用连接和执行查询；输出结果的耗时取决于数据量和客户端，不计入慢调用
+        try (StreamingQuery query = guarded(route.getApiInfo(), () -> openStreamingQuery(route, params))) {
+            try {
+                StreamingQueryWriter.writeQuery(query.resultSet, startTime, ApiRequestParams.isCompact(params), output);
+            } catch (IOException e) {
+                // 客户端断开，取消语句，避免关闭结果集时继续拉取剩余数据
+                cancelQuietly(query.statement);
+                throw e;
+            }
+        } catch (BusinessException e) {
+            log.warn("执行API失败：{}，{}", route.getApiInfo().getApiPath(), e.getMessage());
+            StreamingQueryWriter.writeResult(Result.error(e.getCode(), "API执行失败：" + e.getMessage()), out);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            if (output.isWritten()) {
+                // 响应已部分写出，只能中断输出；尚未写出时下面按普通错误返回
+                log.error("流式输出API结果中断：{}", route.getApiInfo().getApiPath(), e);
+                return;
+            }
+            log.error("执行API失败：{}", route.getApiInfo().getApiPath(), e);
+            StreamingQueryWriter.writeResult(Result.error("API执行失败：" + e.getMessage()), out);
+        } finally {
+            DataSourceContextHolder.setApiId(previousApiId);
+        }
+    }
+
+    /**
+     * 借用连接并执行流式查询，失败时释放已打开的资源
+     */
+    private StreamingQuery openStreamingQuery(ApiRoute route, Map<String, Object> params) throws SQLException {
+        CompiledSql compiledSql = route.getCompiledSql();
+        Connection conn = connectionTracker.getConnection(route.getApiId(), getReadDataSource(route.getApiInfo()));
+        PreparedStatement ps = null;
+        try {
+            ps = conn.prepareStatement(compiledSql.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            applyLimits(ps, route.getApiInfo());
+            ps.setFetchSize(apiExecuteProperties.getStreamFetchSize());
+            compiledSql.bind(ps, params);
+            return new StreamingQuery(conn, ps, ps.executeQuery());
+        } catch (SQLException | RuntimeException e) {
+            try {
+                new StreamingQuery(conn, ps, null).close();
+            } catch (SQLException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
     @Override
     public IPage<ApiInfo> pageApis(Integer pageNum, Integer pageSize, Integer status, String apiName) {
         Page<ApiInfo> page = new Page<>(pageNum, pageSize);
@@ -98,6 +480,35 @@ public class ApiGeneratorServiceImpl extends ServiceImpl<ApiInfoMapper, ApiInfo>
         return this.page(page, wrapper);
     }
 
+    @Override
+    public CursorPage<ApiInfo> scrollApis(String cursor, Integer pageSize, Integer status, String apiName) {
+        int size = CursorPage.limitPageSize(pageSize);
+        // 多查一条判断是否还有下一页，不执行count
+        Page<ApiInfo> page = new Page<>(1, size + 1, false);
+        LambdaQueryWrapper<ApiInfo> wrapper = new LambdaQueryWrapper<>();
+
+        if (status != null) {
+            wrapper.eq(ApiInfo::getStatus, status);
+        }
+
+        if (StringUtils.hasText(apiName)) {
+            wrapper.like(ApiInfo::getApiName, apiName);
+        }
+
+        // 从上一页最后一条记录之后继续：(create_time, id) < (?, ?)
+        if (StringUtils.hasText(cursor)) {
+            Object[] key = CursorUtils.decode(cursor, Timestamp.class, Long.class);
+            LocalDateTime createTime = ((Timestamp) key[0]).toLocalDateTime();
+            Long id = (Long) key[1];
+            wrapper.and(w -> w.lt(ApiInfo::getCreateTime, createTime)
+                    .or(o -> o.eq(ApiInfo::getCreateTime, createTime).lt(ApiInfo::getId, id)));
+        }
+
+        wrapper.orderByDesc(ApiInfo::getCreateTime).orderByDesc(ApiInfo::getId);
+        return CursorPage.build(this.page(page, wrapper).getRecords(), size,
+                apiInfo -> CursorUtils.encode(apiInfo.getCreateTime(), apiInfo.getId()));
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean createApi(ApiInfo apiInfo) {
@@ -139,7 +550,17 @@ public class ApiGeneratorServiceImpl extends ServiceImpl<ApiInfoMapper, ApiInfo>
             throw new BusinessException("API不存在");
         }
 
-        return this.updateById(apiInfo);
+        // 修改SQL时校验模板能否编译
+        if (StringUtils.hasText(apiInfo.getSqlContent())) {
+            CompiledSql.compile(apiInfo.getSqlContent());
+        }
+        KeysetSql.parse(apiInfo.getKeysetColumns());
+
+        boolean success = this.updateById(apiInfo);
+        if (success) {
+            afterApiChanged(apiInfo.getId());
+        }
+        return success;
     }
 
     @Override
@@ -149,7 +570,11 @@ public class ApiGeneratorServiceImpl extends ServiceImpl<ApiInfoMapper, ApiInfo>
             throw new BusinessException("API ID不能为空");
         }
 
-        return this.removeById(id);
+        boolean success = this.removeById(id);
+        if (success) {
+            afterApiChanged(id);
+        }
+        return success;
     }
 
     @Override
@@ -164,8 +589,16 @@ public class ApiGeneratorServiceImpl extends ServiceImpl<ApiInfoMapper, ApiInfo>
             throw new BusinessException("API不存在");
         }
 
+        // 发布前编译SQL模板，模板有误时拒绝发布
+        CompiledSql.compile(apiInfo.getSqlContent());
+        KeysetSql.parse(apiInfo.getKeysetColumns());
+
         apiInfo.setStatus(1); // 发布状态
-        return this.updateById(apiInfo);
+        boolean success = this.updateById(apiInfo);
+        if (success) {
+            afterApiChanged(id);
+        }
+        return success;
     }
 
     @Override
@@ -181,93 +614,400 @@ public class ApiGeneratorServiceImpl extends ServiceImpl<ApiInfoMapper, ApiInfo>
         }
 
         apiInfo.setStatus(2); // 下线状态
-        return this.updateById(apiInfo);
+        boolean success = this.updateById(apiInfo);
+        if (success) {
+            afterApiChanged(id);
+        }
+        return success;
     }
 
     /**
-     * 构建SQL（替换参数占位符）
+     * API变更后，在事务提交后刷新路由表并失效结果缓存；无事务时立即执行
      */
-    private String buildSql(String sqlTemplate, Map<String, Object> params) {
-        if (params == null || params.isEmpty()) {
-            return sqlTemplate;
+    private void afterApiChanged(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshApi(id);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshApi(id);
+            }
+        });
+    }
 
-        String sql = sqlTemplate;
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String placeholder = "${" + entry.getKey() + "}";
-            String value = entry.getValue() != null ? entry.getValue().toString() : "";
-            // 简单的字符串替换，实际使用时应该使用预编译语句防止SQL注入
-            sql = sql.replace(placeholder, value);
+    /**
+     * 刷新路由并清理API相关状态，已发布的API预热连接池和预编译语句
+     */
+    private void refreshApi(Long id) {
+        apiRouteRegistry.refresh(id);
+        apiResultCache.invalidateApi(id);
+        hedgedReads.evict(id);
+        circuitBreakers.evictApi(id);
+        apiWarmup.warmupApi(id);
+    }
+
+    /**
+     * 在数据源并发限制和熔断保护下执行数据库操作
+     * 并发限制在外层，超限拒绝不计入熔断统计
+     */
+    private <V> V guarded(ApiInfo apiInfo, Callable<V> call) throws Exception {
+        Long previous = DataSourceContextHolder.getApiId();
+        DataSourceContextHolder.setApiId(apiInfo.getId());
+        try {
+            return adaptiveLimiters.execute(apiInfo.getDatasourceId(), () -> circuitBreakers.execute(apiInfo, call));
+        } finally {
+            DataSourceContextHolder.setApiId(previous);
         }
+    }
 
-        return sql;
+    /**
+     * 获取API配置的数据源，连接池首次使用时创建
+     */
+    private DataSource getDataSource(ApiInfo apiInfo) {
+        return dataSourceManager.getDataSource(apiInfo.getDatasourceId());
+    }
+
+    /**
+     * 获取查询使用的数据源，配置了读库时按读写分离路由选择
+     */
+    private DataSource getReadDataSource(ApiInfo apiInfo) {
+        return dataSourceManager.getReadDataSource(apiInfo.getDatasourceId());
     }
 
     /**
-     * 获取SQL类型
+     * 执行查询，开启对冲读取的API在首选读库变慢时向另一个读库发送相同查询
      */
-    private String getSqlType(String sql) {
-        String trimmed = sql.trim().toUpperCase();
-        if (trimmed.startsWith("SELECT")) {
-            return "SELECT";
-        } else if (trimmed.startsWith("INSERT")) {
-            return "INSERT";
-        } else if (trimmed.startsWith("UPDATE")) {
-            return "UPDATE";
-        } else if (trimmed.startsWith("DELETE")) {
-            return "DELETE";
+    private ApiExecuteResult executeQuery(ApiRoute route, Map<String, Object> params, boolean compact,
+                                          long startTime, StatementCanceller canceller) throws Exception {
+        ApiInfo apiInfo = route.getApiInfo();
+        if (!HedgedReads.isHedged(apiInfo)) {
+            return executeQuery(route, params, compact, startTime, getReadDataSource(apiInfo), canceller);
         }
-        return "UNKNOWN";
+        List<DataSource> dataSources = dataSourceManager.getReadDataSources(apiInfo.getDatasourceId());
+        return hedgedReads.execute(apiInfo, dataSources, canceller,
+                (dataSource, attemptCanceller) -> executeQuery(route, params, compact, startTime, dataSource,
+                        attemptCanceller));
     }
 
     /**
-     * 执行查询SQL
+     * 在指定数据源上执行查询SQL
+     * 传入 pageNum/pageSize 时按数据源方言在数据库端分页，并附带总数；
+     * API配置了游标排序键时改为键集分页，通过 _cursor 翻页
+     *
+     * @param canceller 语句取消句柄，请求取消或对冲读取中落后时取消查询
      */
-    private ApiExecuteResult executeQuery(String sql, long startTime) throws SQLException {
-        DataSource dataSource = dataSourceManager.getAllDataSources().get("master");
-        if (dataSource == null) {
-            throw new BusinessException("数据源未配置");
+    private ApiExecuteResult executeQuery(ApiRoute route, Map<String, Object> params, boolean compact,
+                                          long startTime, DataSource dataSource, StatementCanceller canceller)
+            throws SQLException {
+        ApiInfo apiInfo = route.getApiInfo();
+        CompiledSql compiledSql = route.getCompiledSql();
+        PageRequest page = PageRequest.of(compiledSql, params, apiExecuteProperties.getPage().getMaxPageSize());
+        KeysetSql keyset = page != null ? route.getKeysetSql() : null;
+        DatabaseType databaseType = page != null ? dataSourceManager.getDatabaseType(apiInfo.getDatasourceId()) : null;
+        PageSql pageSql = page != null && keyset == null ? route.getPageSql(databaseType) : null;
+        Object[] cursorKey = keyset != null ? keyset.decodeCursor(params.get(ApiRequestParams.CURSOR)) : null;
+
+        String sql;
+        if (keyset != null) {
+            sql = keyset.sql(compiledSql, databaseType, cursorKey != null);
+        } else {
+            sql = pageSql != null ? pageSql.getSql() : compiledSql.getSql();
         }
 
         List<Map<String, Object>> resultList = new ArrayList<>();
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            int columnCount = rs.getMetaData().getColumnCount();
-            while (rs.next()) {
-                Map<String, Object> row = new java.util.LinkedHashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = rs.getMetaData().getColumnName(i);
-                    Object value = rs.getObject(i);
-                    row.put(columnName, value);
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        Long total = null;
+        String nextCursor = null;
+
+        try (Connection conn = connectionTracker.getConnection(apiInfo.getId(), dataSource)) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                applyLimits(ps, apiInfo);
+                compiledSql.bind(ps, params);
+                int pageIndex = compiledSql.getParamNameList().size() + 1;
+                if (keyset != null) {
+                    // 多查一条判断是否还有下一页
+                    keyset.bind(ps, pageIndex, cursorKey, page.getPageSize() + 1);
+                } else if (pageSql != null) {
+                    pageSql.bind(ps, pageIndex, page);
+                }
+                canceller.register(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    // 列读取器按语句构建一次，避免逐单元格读取元数据
+                    ColumnReader[] readers = ColumnReader.of(rs.getMetaData());
+                    if (pageSql != null && pageSql.getExtraColumns() > 0) {
+                        readers = Arrays.copyOf(readers, readers.length - pageSql.getExtraColumns());
+                    }
+                    if (compact) {
+                        for (ColumnReader reader : readers) {
+                            columns.add(reader.getName());
+                        }
+                    }
+                    while (rs.next()) {
+                        if (compact) {
+                            Object[] row = new Object[readers.length];
+                            for (int i = 0; i < readers.length; i++) {
+                                row[i] = readers[i].read(rs);
+                            }
+                            rows.add(row);
+                        } else {
+                            Map<String, Object> row = new LinkedHashMap<>(readers.length * 2);
+                            for (ColumnReader reader : readers) {
+                                row.put(reader.getName(), reader.read(rs));
+                            }
+                            resultList.add(row);
+                        }
+                    }
+                } finally {
+                    canceller.unregister(ps);
                 }
-                resultList.add(row);
+            }
+
+            if (keyset != null) {
+                nextCursor = trimKeysetPage(keyset, page, compact, columns, rows, resultList);
+            } else if (page != null && page.isCount()) {
+                total = countRows(conn, route, params, pageSql, page, compact ? rows.size() : resultList.size(),
+                        canceller);
             }
         }
 
         long executeTime = System.currentTimeMillis() - startTime;
-        return ApiExecuteResult.success(resultList, executeTime);
+        ApiExecuteResult result = compact
+                ? ApiExecuteResult.compact(columns, rows, executeTime)
+                : ApiExecuteResult.success(resultList, executeTime);
+        if (keyset != null) {
+            result.setPageSize(page.getPageSize());
+            result.setNextCursor(nextCursor);
+        } else if (page != null) {
+            result.setPageNum(page.getPageNum());
+            result.setPageSize(page.getPageSize());
+            result.setTotal(total);
+        }
+        return result;
     }
 
     /**
-     * 执行更新SQL
+     * 去掉键集分页多查的一条，并用本页最后一行生成下一页游标
+     *
+     * @return 下一页游标，没有更多数据时返回null
      */
-    private ApiExecuteResult executeUpdate(String sql, long startTime) throws SQLException {
-        DataSource dataSource = dataSourceManager.getAllDataSources().get("master");
-        if (dataSource == null) {
-            throw new BusinessException("数据源未配置");
+    private String trimKeysetPage(KeysetSql keyset, PageRequest page, boolean compact, List<String> columns,
+                                  List<Object[]> rows, List<Map<String, Object>> resultList) {
+        int pageSize = page.getPageSize();
+        if (compact) {
+            if (rows.size() <= pageSize) {
+                return null;
+            }
+            rows.subList(pageSize, rows.size()).clear();
+            return keyset.cursorOf(columns, rows.get(pageSize - 1));
+        }
+        if (resultList.size() <= pageSize) {
+            return null;
         }
+        resultList.subList(pageSize, resultList.size()).clear();
+        Map<String, Object> last = resultList.get(pageSize - 1);
+        return keyset.cursorOf(new ArrayList<>(last.keySet()), last.values().toArray());
+    }
 
-        int affectedRows;
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    /**
+     * 查询分页总数
+     * 当前页未取满时总数可直接推算（最大行数小于每页条数时按最大行数判断是否取满）；
+     * 否则按查询条件缓存计数结果，翻页时复用
+     */
+    private long countRows(Connection conn, ApiRoute route, Map<String, Object> params, PageSql pageSql,
+                           PageRequest page, int fetched, StatementCanceller canceller) throws SQLException {
+        int maxRows = maxRows(route.getApiInfo());
+        int limit = maxRows > 0 ? Math.min(page.getPageSize(), maxRows) : page.getPageSize();
+        if ((fetched > 0 && fetched < limit) || (fetched == 0 && page.getOffset() == 0)) {
+            return page.getOffset() + fetched;
+        }
+
+        String countKey = ApiRequestParams.countKey(route, params);
+        Long cached = apiResultCache.getCount(countKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        ApiResultCache.Snapshot snapshot = apiResultCache.snapshot(route);
+        long count = 0;
+        try (PreparedStatement ps = conn.prepareStatement(pageSql.getCountSql())) {
+            applyLimits(ps, route.getApiInfo());
+            route.getCompiledSql().bind(ps, params);
+            canceller.register(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    count = rs.getLong(1);
+                }
+            } finally {
+                canceller.unregister(ps);
+            }
+        }
+        apiResultCache.putCount(countKey, snapshot, count);
+        return count;
+    }
 
-            affectedRows = ps.executeUpdate();
+    /**
+     * 执行更新SQL
+     */
+    private ApiExecuteResult executeUpdate(ApiInfo apiInfo, CompiledSql compiledSql, Map<String, Object> params,
+                                           long startTime, StatementCanceller canceller) throws SQLException {
+        DataSource dataSource = getDataSource(apiInfo);
+
+        int affectedRows;
+        try (Connection conn = connectionTracker.getConnection(apiInfo.getId(), dataSource);
+             PreparedStatement ps = conn.prepareStatement(compiledSql.getSql())) {
+
+            applyLimits(ps, apiInfo);
+            compiledSql.bind(ps, params);
+            canceller.register(ps);
+            try {
+                affectedRows = ps.executeUpdate();
+            } finally {
+                canceller.unregister(ps);
+            }
         }
+        dataSourceManager.markWrite(apiInfo.getDatasourceId());
 
         long executeTime = System.currentTimeMillis() - startTime;
         return ApiExecuteResult.update(affectedRows, executeTime);
     }
+
+    /**
+     * 批量执行更新SQL
+     * 同一预编译语句按组 addBatch，每 chunkSize 组执行一次，全部成功后提交，任一组失败整体回滚
+     */
+    private ApiExecuteResult executeBatch(ApiInfo apiInfo, CompiledSql compiledSql, List<Map<String, Object>> items,
+                                          long startTime) throws SQLException {
+        DataSource dataSource = getDataSource(apiInfo);
+        int chunkSize = Math.max(1, apiExecuteProperties.getBatch().getChunkSize());
+        int[] affectedRows = new int[items.size()];
+
+        try (Connection conn = connectionTracker.getConnection(apiInfo.getId(), dataSource)) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            int chunkStart = 0;
+            try (PreparedStatement ps = conn.prepareStatement(compiledSql.getSql())) {
+                applyLimits(ps, apiInfo);
+                for (int i = 0; i < items.size(); i++) {
+                    compiledSql.bind(ps, items.get(i));
+                    ps.addBatch();
+                    if ((i + 1) % chunkSize == 0 || i == items.size() - 1) {
+                        int[] counts = ps.executeBatch();
+                        System.arraycopy(counts, 0, affectedRows, chunkStart, counts.length);
+                        chunkStart = i + 1;
+                    }
+                }
+                conn.commit();
+                dataSourceManager.markWrite(apiInfo.getDatasourceId());
+            } catch (BatchUpdateException e) {
+                rollback(conn, e);
+                int chunkEnd = Math.min(chunkStart + chunkSize, items.size());
+                int failedIndex = failedIndex(e.getUpdateCounts(), chunkEnd - chunkStart);
+                String failed = failedIndex >= 0 ? "第" + (chunkStart + failedIndex + 1) + "组参数"
+                        : "第" + (chunkStart + 1) + "至" + chunkEnd + "组参数中有参数";
+                throw new SQLException(failed + "执行失败：" + e.getMessage(), e);
+            } catch (SQLException | RuntimeException e) {
+                rollback(conn, e);
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+
+        long executeTime = System.currentTimeMillis() - startTime;
+        return ApiExecuteResult.batch(affectedRows, executeTime);
+    }
+
+    /**
+     * 批量执行失败的参数组在本批中的位置
+     * 只有驱动返回了本批每组参数的结果时才能确定；MySQL批量重写等情况下返回的数组不对应参数组，返回-1
+     */
+    private static int failedIndex(int[] updateCounts, int chunkSize) {
+        if (updateCounts == null || updateCounts.length != chunkSize) {
+            return -1;
+        }
+        int failed = -1;
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                if (failed >= 0) {
+                    // 多组失败时无法区分是各自失败还是整批失败
+                    return -1;
+                }
+                failed = i;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 回滚事务，回滚失败时附加到原异常上，不覆盖原异常
+     */
+    private static void rollback(Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 设置语句超时和最大行数，API未配置时使用全局默认值
+     */
+    private void applyLimits(PreparedStatement ps, ApiInfo apiInfo) throws SQLException {
+        int queryTimeout = apiInfo.getQueryTimeout() != null
+                ? apiInfo.getQueryTimeout() : apiExecuteProperties.getDefaultQueryTimeout();
+        if (queryTimeout > 0) {
+            ps.setQueryTimeout(queryTimeout);
+        }
+        int maxRows = maxRows(apiInfo);
+        if (maxRows > 0) {
+            ps.setMaxRows(maxRows);
+        }
+    }
+
+    /**
+     * API的最大返回行数，未配置时使用全局默认值，0表示不限制
+     */
+    private int maxRows(ApiInfo apiInfo) {
+        return apiInfo.getMaxRows() != null ? apiInfo.getMaxRows() : apiExecuteProperties.getDefaultMaxRows();
+    }
+
+    /**
+     * 取消执行中的语句，忽略驱动不支持或已结束的情况
+     */
+    private void cancelQuietly(PreparedStatement ps) {
+        try {
+            ps.cancel();
+        } catch (SQLException e) {
+            log.debug("取消语句失败", e);
+        }
+    }
+
+    /**
+     * 已执行的流式查询，结果写完后依次关闭结果集、语句和连接
+     */
+    private static final class StreamingQuery implements AutoCloseable {
+
+        private final Connection connection;
+
+        private final PreparedStatement statement;
+
+        private final ResultSet resultSet;
+
+        StreamingQuery(Connection connection, PreparedStatement statement, ResultSet resultSet) {
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (Connection c = connection; PreparedStatement ps = statement; ResultSet rs = resultSet) {
+                // 按声明的逆序关闭
+            }
+        }
+    }
 }
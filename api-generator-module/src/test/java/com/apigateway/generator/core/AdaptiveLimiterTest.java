@@ -0,0 +1,105 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.generator.config.ApiExecuteProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 自适应并发限制测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class AdaptiveLimiterTest {
+
+    private static final int WINDOW_SAMPLES = 5;
+
+    @Test
+    void rejectsBeyondLimitUntilReleased() {
+        AdaptiveLimiter limiter = limiter();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+        assertEquals(10, limiter.getInFlight());
+
+        limiter.release();
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(8, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsWhenRttStaysAtBaselineUpToMaxLimit() {
+        AdaptiveLimiter limiter = limiter();
+
+        fullWindow(limiter, 1);
+        assertEquals(16, limiter.getLimit());
+        assertEquals(1.0, limiter.getMinRttMillis());
+
+        fullWindow(limiter, 1);
+        assertEquals(20, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shrinksWhenRequestsQueueDownToMinLimit() {
+        AdaptiveLimiter limiter = limiter();
+        fullWindow(limiter, 1);
+        assertEquals(16, limiter.getLimit());
+
+        fullWindow(limiter, 10);
+        assertEquals(14, limiter.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            fullWindow(limiter, 10);
+        }
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void keepsLimitWhileUnderutilised() {
+        AdaptiveLimiter limiter = limiter();
+
+        for (int i = 0; i < WINDOW_SAMPLES * 3; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    /**
+     * 占满当前上限后采集一个窗口的样本，其余许可直接释放
+     */
+    private static void fullWindow(AdaptiveLimiter limiter, long rttMillis) {
+        int permits = limiter.getLimit();
+        for (int i = 0; i < permits; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < permits; i++) {
+            if (i < WINDOW_SAMPLES) {
+                limiter.onSample(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    private static AdaptiveLimiter limiter() {
+        ApiExecuteProperties.ConcurrencyLimit config = new ApiExecuteProperties.ConcurrencyLimit();
+        config.setInitialLimit(10);
+        config.setMinLimit(8);
+        config.setMaxLimit(20);
+        config.setWindowSamples(WINDOW_SAMPLES);
+        config.setProbeInterval(1000);
+        return new AdaptiveLimiter("test", config);
+    }
+}
@@ -0,0 +1,126 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.generator.config.ApiExecuteProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 熔断器测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50;
+
+    @Test
+    void opensOnceFailureRateReachesThreshold() {
+        CircuitBreaker breaker = breaker();
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onComplete(10, i % 2 == 0);
+        }
+        // 未达到最小调用数，不统计失败率
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(50.0, breaker.getFailureRate());
+
+        breaker.onComplete(10, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getNotPermitted());
+        assertEquals(0, breaker.getBufferedCalls());
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        CircuitBreaker breaker = breaker();
+
+        for (int i = 0; i < 5; i++) {
+            breaker.onComplete(i < 4 ? 200 : 10, false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void slidesWindowOverOldestOutcomes() {
+        CircuitBreaker breaker = breaker();
+
+        breaker.onComplete(10, true);
+        breaker.onComplete(10, true);
+        for (int i = 0; i < 10; i++) {
+            breaker.onComplete(10, false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(10, breaker.getBufferedCalls());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCalls() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        // 半开状态只放行 halfOpenCalls 次试探
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onComplete(10, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onComplete(10, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void reopensOnFailedTrialCall() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onComplete(10, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void releaseReturnsUnusedTrialPermit() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.release();
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 5; i++) {
+            breaker.onComplete(10, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static CircuitBreaker breaker() {
+        ApiExecuteProperties.CircuitBreaker config = new ApiExecuteProperties.CircuitBreaker();
+        config.setWindowSize(10);
+        config.setMinimumCalls(5);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallMillis(100);
+        config.setSlowCallRateThreshold(80);
+        config.setOpenMillis(OPEN_MILLIS);
+        config.setHalfOpenCalls(2);
+        return new CircuitBreaker("test", config);
+    }
+}
@@ -0,0 +1,105 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL模板编译测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class CompiledSqlTest {
+
+    @Test
+    void compilesPlaceholdersToPositionalParameters() {
+        CompiledSql compiled = CompiledSql.compile(
+                "SELECT * FROM user_info WHERE dept_id = ${deptId} AND status = ${status} AND dept_id > ${ deptId }");
+
+        assertEquals("SELECT * FROM user_info WHERE dept_id = ? AND status = ? AND dept_id > ?", compiled.getSql());
+        assertArrayEquals(new String[]{"deptId", "status", "deptId"}, compiled.getParamNames());
+        assertTrue(compiled.isQuery());
+        assertEquals("SELECT", compiled.getSqlType());
+    }
+
+    @Test
+    void rewritesPlaceholdersInsideLiteralsToConcat() {
+        CompiledSql compiled = CompiledSql.compile(
+                "SELECT * FROM user_info WHERE name LIKE '%${name}%' AND code = '${code}' AND note = 'it''s ${x}'");
+
+        assertEquals("SELECT * FROM user_info WHERE name LIKE CONCAT('%', ?, '%') AND code = ? "
+                + "AND note = CONCAT('it''s ', ?)", compiled.getSql());
+        assertEquals(Arrays.asList("name", "code", "x"), compiled.getParamNameList());
+    }
+
+    @Test
+    void keepsLiteralsWithoutPlaceholders() {
+        CompiledSql compiled = CompiledSql.compile("UPDATE t SET a = '{a}' WHERE b = 'x''y'");
+
+        assertEquals("UPDATE t SET a = '{a}' WHERE b = 'x''y'", compiled.getSql());
+        assertEquals(0, compiled.getParamNames().length);
+        assertFalse(compiled.isQuery());
+        assertEquals("UPDATE", compiled.getSqlType());
+    }
+
+    @Test
+    void rejectsMalformedTemplates() {
+        assertThrows(BusinessException.class, () -> CompiledSql.compile(" "));
+        assertThrows(BusinessException.class, () -> CompiledSql.compile("SELECT * FROM t WHERE a = ${a"));
+        assertThrows(BusinessException.class, () -> CompiledSql.compile("SELECT * FROM t WHERE a = ${ }"));
+        assertThrows(BusinessException.class, () -> CompiledSql.compile("SELECT * FROM t WHERE a = 'abc"));
+    }
+
+    @Test
+    void bindsParametersInSlotOrderAndMissingAsNull() throws Exception {
+        CompiledSql compiled = CompiledSql.compile("SELECT * FROM t WHERE a = ${a} AND b = ${b} AND c = ${a}");
+        Map<Integer, Object> bound = new TreeMap<>();
+        PreparedStatement ps = recording(bound);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("a", 1);
+        compiled.bind(ps, params);
+
+        Map<Integer, Object> expected = new TreeMap<>();
+        expected.put(1, 1);
+        expected.put(2, null);
+        expected.put(3, 1);
+        assertEquals(expected, bound);
+    }
+
+    @Test
+    void extractsTablesForCacheTags() {
+        CompiledSql compiled = CompiledSql.compile(
+                "SELECT o.id FROM orders o JOIN order_item i ON o.id = i.order_id WHERE o.user_id = ${userId}");
+
+        assertTrue(compiled.getTables().contains("orders"));
+        assertTrue(compiled.getTables().contains("order_item"));
+    }
+
+    /**
+     * 记录参数绑定（setObject、setInt等）的 PreparedStatement
+     */
+    static PreparedStatement recording(Map<Integer, Object> bound) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args.length == 2) {
+                        bound.put((Integer) args[0], args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,84 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.exception.BusinessException;
+import com.apigateway.datasource.core.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 键集分页SQL测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class KeysetSqlTest {
+
+    private static final CompiledSql QUERY = CompiledSql.compile("SELECT * FROM orders WHERE user_id = ${userId};");
+
+    @Test
+    void parsesSortKeys() {
+        assertNull(KeysetSql.parse(" "));
+        assertThrows(BusinessException.class, () -> KeysetSql.parse("id; DROP TABLE t"));
+        assertThrows(BusinessException.class, () -> KeysetSql.parse("id SIDEWAYS"));
+        assertThrows(BusinessException.class, () -> KeysetSql.parse("create_time DESC NULLS"));
+    }
+
+    @Test
+    void firstPageOnlyOrdersAndLimits() {
+        KeysetSql keyset = KeysetSql.parse("create_time DESC, id DESC");
+
+        assertEquals("SELECT * FROM (SELECT * FROM orders WHERE user_id = ?) page_t "
+                + "ORDER BY page_t.create_time DESC, page_t.id DESC LIMIT ?",
+                keyset.sql(QUERY, DatabaseType.MYSQL, false));
+    }
+
+    @Test
+    void seekExpandsRowComparison() throws Exception {
+        KeysetSql keyset = KeysetSql.parse("create_time desc, id");
+
+        assertEquals("SELECT * FROM (SELECT * FROM orders WHERE user_id = ?) page_t "
+                + "WHERE (page_t.create_time < ?) OR (page_t.create_time = ? AND page_t.id > ?) "
+                + "ORDER BY page_t.create_time DESC, page_t.id ASC LIMIT ?", keyset.sql(QUERY, DatabaseType.DM, true));
+
+        Map<Integer, Object> bound = new TreeMap<>();
+        keyset.bind(CompiledSqlTest.recording(bound), 2, new Object[]{"t1", 9L}, 21);
+        Map<Integer, Object> expected = new TreeMap<>();
+        expected.put(2, "t1");
+        expected.put(3, "t1");
+        expected.put(4, 9L);
+        expected.put(5, 21);
+        assertEquals(expected, bound);
+    }
+
+    @Test
+    void usesDialectRowLimit() {
+        KeysetSql keyset = KeysetSql.parse("id");
+
+        assertEquals("SELECT * FROM (SELECT * FROM (SELECT * FROM orders WHERE user_id = ?) page_t "
+                + "ORDER BY page_t.id ASC) WHERE ROWNUM <= ?", keyset.sql(QUERY, DatabaseType.ORACLE, false));
+        assertEquals("SELECT * FROM (SELECT * FROM orders WHERE user_id = ?) page_t "
+                + "ORDER BY page_t.id ASC OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY",
+                keyset.sql(QUERY, DatabaseType.SQLSERVER, false));
+    }
+
+    @Test
+    void cursorCarriesSortKeysOfLastRow() {
+        KeysetSql keyset = KeysetSql.parse("create_time DESC, id DESC");
+
+        String cursor = keyset.cursorOf(Arrays.asList("ID", "NAME", "CREATE_TIME"),
+                new Object[]{9, "x", java.sql.Timestamp.valueOf("2024-01-02 03:04:05")});
+
+        assertArrayEquals(new Object[]{java.sql.Timestamp.valueOf("2024-01-02 03:04:05"), 9L},
+                keyset.decodeCursor(cursor));
+        assertNull(keyset.decodeCursor(""));
+        assertThrows(BusinessException.class, () -> keyset.cursorOf(Arrays.asList("id"), new Object[]{9}));
+    }
+}
@@ -0,0 +1,119 @@
+package com.apigateway.generator.core;
+
+import com.apigateway.common.exception.BusinessException;
+import com.apigateway.datasource.core.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 方言分页SQL测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class PageSqlTest {
+
+    private static final CompiledSql QUERY =
+            CompiledSql.compile("SELECT id, name FROM user_info WHERE dept_id = ${deptId};");
+
+    @Test
+    void appendsLimitOffsetForMysqlFamily() throws Exception {
+        DatabaseType[] types = {DatabaseType.MYSQL, DatabaseType.DM, DatabaseType.POSTGRESQL, null};
+        for (DatabaseType type : types) {
+            PageSql pageSql = PageSql.of(QUERY, type);
+
+            assertEquals("SELECT id, name FROM user_info WHERE dept_id = ? LIMIT ? OFFSET ?", pageSql.getSql());
+            assertEquals("SELECT COUNT(*) FROM (SELECT id, name FROM user_info WHERE dept_id = ?) count_t",
+                    pageSql.getCountSql());
+            assertEquals(0, pageSql.getExtraColumns());
+            assertEquals(bound(20, 40L), bind(pageSql, page(3, 20)));
+        }
+    }
+
+    @Test
+    void wrapsTemplatesThatAlreadyLimit() {
+        PageSql pageSql = PageSql.of(CompiledSql.compile("SELECT * FROM t ORDER BY id LIMIT 100"), DatabaseType.MYSQL);
+
+        assertEquals("SELECT * FROM (SELECT * FROM t ORDER BY id LIMIT 100) page_t LIMIT ? OFFSET ?", pageSql.getSql());
+    }
+
+    @Test
+    void usesRownumForOracle() throws Exception {
+        PageSql pageSql = PageSql.of(QUERY, DatabaseType.ORACLE);
+
+        assertEquals("SELECT * FROM (SELECT page_t.*, ROWNUM page_rn FROM (SELECT id, name FROM user_info "
+                + "WHERE dept_id = ?) page_t WHERE ROWNUM <= ?) WHERE page_rn > ?", pageSql.getSql());
+        assertEquals(1, pageSql.getExtraColumns());
+        assertEquals(bound(60L, 40L), bind(pageSql, page(3, 20)));
+    }
+
+    @Test
+    void usesOffsetFetchForSqlServer() throws Exception {
+        PageSql unordered = PageSql.of(QUERY, DatabaseType.SQLSERVER);
+        PageSql ordered = PageSql.of(CompiledSql.compile("SELECT * FROM t ORDER BY id"), DatabaseType.SQLSERVER);
+
+        assertEquals("SELECT id, name FROM user_info WHERE dept_id = ? ORDER BY (SELECT NULL) "
+                + "OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", unordered.getSql());
+        assertEquals("SELECT * FROM t ORDER BY id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", ordered.getSql());
+        assertEquals(bound(40L, 20), bind(unordered, page(3, 20)));
+    }
+
+    @Test
+    void parsesPageRequest() {
+        Map<String, Object> params = new HashMap<>();
+        assertNull(PageRequest.of(QUERY, params, 1000));
+
+        params.put(ApiRequestParams.PAGE_SIZE, "5000");
+        params.put(ApiRequestParams.COUNT, "false");
+        PageRequest page = PageRequest.of(QUERY, params, 1000);
+        assertEquals(1, page.getPageNum());
+        assertEquals(1000, page.getPageSize());
+        assertEquals(0, page.getOffset());
+        assertFalse(page.isCount());
+
+        params.put(ApiRequestParams.PAGE_NUM, "0");
+        assertThrows(BusinessException.class, () -> PageRequest.of(QUERY, params, 1000));
+    }
+
+    @Test
+    void leavesSelfPagedTemplatesAlone() {
+        CompiledSql selfPaged = CompiledSql.compile("SELECT * FROM t LIMIT ${pageSize}");
+        Map<String, Object> params = new HashMap<>();
+        params.put(ApiRequestParams.PAGE_SIZE, 10);
+
+        assertNull(PageRequest.of(selfPaged, params, 1000));
+        assertTrue(PageRequest.of(QUERY, params, 1000).isCount());
+    }
+
+    private static PageRequest page(long pageNum, int pageSize) {
+        Map<String, Object> params = new HashMap<>();
+        params.put(ApiRequestParams.PAGE_NUM, pageNum);
+        params.put(ApiRequestParams.PAGE_SIZE, pageSize);
+        return PageRequest.of(QUERY, params, 1000);
+    }
+
+    /**
+     * 绑定分页参数，返回分页占位符上的值（SQL参数之后，从位置2开始）
+     */
+    private static Map<Integer, Object> bind(PageSql pageSql, PageRequest page) throws Exception {
+        Map<Integer, Object> bound = new TreeMap<>();
+        pageSql.bind(CompiledSqlTest.recording(bound), 2, page);
+        return bound;
+    }
+
+    private static Map<Integer, Object> bound(Object first, Object second) {
+        Map<Integer, Object> bound = new TreeMap<>();
+        bound.put(2, first);
+        bound.put(3, second);
+        return bound;
+    }
+}
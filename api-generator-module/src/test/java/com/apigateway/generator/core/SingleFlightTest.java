@@ -0,0 +1,115 @@
+package com.apigateway.generator.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 请求合并测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 4;
+
+    @Test
+    void coalescesConcurrentCallsWithSameKey() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("k", () -> {
+                started.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                return "v";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 1; i < CALLERS; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("k", () -> "other")));
+            }
+            awaitCoalesced(singleFlight, CALLERS - 1);
+            release.countDown();
+
+            assertEquals("v", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("v", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, singleFlight.getExecutions());
+            assertEquals(CALLERS - 1, singleFlight.getCoalesced());
+            assertEquals(0, singleFlight.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void propagatesFailureToCoalescedCalls() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        SQLException failure = new SQLException("boom");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("k", () -> {
+                started.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                throw failure;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("k", () -> "other"));
+            awaitCoalesced(singleFlight, 1);
+            release.countDown();
+
+            ExecutionException leaderError = assertThrows(ExecutionException.class,
+                    () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException followerError = assertThrows(ExecutionException.class,
+                    () -> follower.get(5, TimeUnit.SECONDS));
+            assertSame(failure, leaderError.getCause());
+            assertInstanceOf(SQLException.class, followerError.getCause());
+            assertSame(failure, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executesAgainOnceCallCompletes() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        assertEquals(1, singleFlight.execute("k", () -> 1));
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("k", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(3, singleFlight.execute("k", () -> 3));
+        assertEquals(3, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> singleFlight, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (singleFlight.getCoalesced() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, singleFlight.getCoalesced());
+    }
+}
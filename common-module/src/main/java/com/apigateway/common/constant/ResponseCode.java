@@ -39,6 +39,11 @@ public interface ResponseCode {
      */
     Integer PARAM_ERROR = 400;
 
+    /**
+     * 服务繁忙
+     */
+    Integer SERVICE_UNAVAILABLE = 503;
+
     /**
      * 业务异常
      */
@@ -0,0 +1,81 @@
+package com.apigateway.common.core;
+
+import com.apigateway.common.constant.ResponseCode;
+import com.apigateway.common.exception.BusinessException;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果类
+ * 键集分页返回的数据，通过 nextCursor 获取下一页，深分页的代价与第一页相同
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 每页最大条数
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * 每页条数
+     */
+    private Integer pageSize;
+
+    /**
+     * 下一页游标，没有更多数据时为空
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore;
+
+    /**
+     * 数据列表
+     */
+    private List<T> records;
+
+    /**
+     * 校验每页条数，超过上限时按上限查询
+     *
+     * @param pageSize 请求的每页条数
+     * @return 实际每页条数
+     */
+    public static int limitPageSize(Integer pageSize) {
+        if (pageSize == null || pageSize < 1) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR, "分页参数错误：pageSize须为正整数");
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * 构建游标分页结果
+     *
+     * @param records 查询结果（按 pageSize + 1 条查询，多出的一条用于判断是否还有下一页）
+     * @param pageSize 每页条数
+     * @param cursorOf 根据最后一条记录生成游标
+     */
+    public static <T> CursorPage<T> build(List<T> records, int pageSize, Function<T, String> cursorOf) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setPageSize(pageSize);
+        boolean hasMore = records.size() > pageSize;
+        List<T> pageRecords = hasMore ? new ArrayList<>(records.subList(0, pageSize)) : records;
+        page.setHasMore(hasMore);
+        page.setRecords(pageRecords);
+        if (hasMore) {
+            page.setNextCursor(cursorOf.apply(pageRecords.get(pageSize - 1)));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,142 @@
+package com.apigateway.common.util;
+
+import com.apigateway.common.constant.ResponseCode;
+import com.apigateway.common.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 游标工具类
+ * 将键集分页的排序键值编码为不透明的游标字符串，解码时还原值类型
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public class CursorUtils {
+
+    private static final char TYPE_LONG = 'L';
+
+    private static final char TYPE_DECIMAL = 'D';
+
+    private static final char TYPE_DOUBLE = 'F';
+
+    private static final char TYPE_TIMESTAMP = 'T';
+
+    private static final char TYPE_STRING = 'S';
+
+    /**
+     * 编码游标
+     * 每个值编码为 类型 + 长度 + ':' + 文本，整体再做URL安全的Base64
+     *
+     * @param values 排序键值
+     * @return 游标
+     */
+    public static String encode(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            if (value == null) {
+                throw new BusinessException("游标排序键不能为空");
+            }
+            char type;
+            String text;
+            if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte) {
+                type = TYPE_LONG;
+                text = value.toString();
+            } else if (value instanceof BigDecimal) {
+                type = TYPE_DECIMAL;
+                text = ((BigDecimal) value).toPlainString();
+            } else if (value instanceof Number) {
+                type = TYPE_DOUBLE;
+                text = value.toString();
+            } else if (value instanceof LocalDateTime) {
+                type = TYPE_TIMESTAMP;
+                text = Timestamp.valueOf((LocalDateTime) value).toString();
+            } else if (value instanceof LocalDate) {
+                type = TYPE_TIMESTAMP;
+                text = Timestamp.valueOf(((LocalDate) value).atStartOfDay()).toString();
+            } else if (value instanceof Timestamp) {
+                type = TYPE_TIMESTAMP;
+                text = value.toString();
+            } else if (value instanceof Date) {
+                type = TYPE_TIMESTAMP;
+                text = new Timestamp(((Date) value).getTime()).toString();
+            } else {
+                type = TYPE_STRING;
+                text = value.toString();
+            }
+            sb.append(type).append(text.length()).append(':').append(text);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标
+     * @param size 排序键个数
+     * @return 排序键值（Long、BigDecimal、Double、Timestamp 或 String）
+     */
+    public static Object[] decode(String cursor, int size) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Object[] values = new Object[size];
+            int pos = 0;
+            for (int i = 0; i < size; i++) {
+                char type = text.charAt(pos);
+                int colon = text.indexOf(':', pos);
+                int length = Integer.parseInt(text.substring(pos + 1, colon));
+                String value = text.substring(colon + 1, colon + 1 + length);
+                values[i] = parse(type, value);
+                pos = colon + 1 + length;
+            }
+            if (pos != text.length()) {
+                throw new IllegalArgumentException("cursor length mismatch");
+            }
+            return values;
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR, "无效的游标");
+        }
+    }
+
+    /**
+     * 解码游标并校验排序键类型，类型不符时视为无效游标
+     *
+     * @param cursor 游标
+     * @param types 各排序键的类型
+     * @return 排序键值
+     */
+    public static Object[] decode(String cursor, Class<?>... types) {
+        Object[] values = decode(cursor, types.length);
+        for (int i = 0; i < types.length; i++) {
+            if (!types[i].isInstance(values[i])) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR, "无效的游标");
+            }
+        }
+        return values;
+    }
+
+    private static Object parse(char type, String value) {
+        switch (type) {
+            case TYPE_LONG:
+                return Long.valueOf(value);
+            case TYPE_DECIMAL:
+                return new BigDecimal(value);
+            case TYPE_DOUBLE:
+                return Double.valueOf(value);
+            case TYPE_TIMESTAMP:
+                return Timestamp.valueOf(value);
+            case TYPE_STRING:
+                return value;
+            default:
+                throw new IllegalArgumentException("unknown cursor type: " + type);
+        }
+    }
+}
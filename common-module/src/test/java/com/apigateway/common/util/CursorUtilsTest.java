@@ -0,0 +1,76 @@
+package com.apigateway.common.util;
+
+import com.apigateway.common.constant.ResponseCode;
+import com.apigateway.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 游标工具类测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class CursorUtilsTest {
+
+    @Test
+    void roundTripsSupportedTypes() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123000000);
+        String cursor = CursorUtils.encode(42, 7L, new BigDecimal("12.50"), 1.5d, time, "a:b,c");
+
+        Object[] values = CursorUtils.decode(cursor, 6);
+
+        assertArrayEquals(new Object[]{42L, 7L, new BigDecimal("12.50"), 1.5d, Timestamp.valueOf(time), "a:b,c"},
+                values);
+    }
+
+    @Test
+    void normalizesDatesToTimestamps() {
+        String cursor = CursorUtils.encode(LocalDate.of(2024, 1, 2), new java.util.Date(0L));
+
+        Object[] values = CursorUtils.decode(cursor, Timestamp.class, Timestamp.class);
+
+        assertEquals(Timestamp.valueOf("2024-01-02 00:00:00"), values[0]);
+        assertEquals(new Timestamp(0L), values[1]);
+    }
+
+    @Test
+    void producesUrlSafeCursors() {
+        String cursor = CursorUtils.encode("??>>~~", 1L);
+
+        assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="));
+    }
+
+    @Test
+    void rejectsNullKeys() {
+        assertThrows(BusinessException.class, () -> CursorUtils.encode(1L, null));
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        String cursor = CursorUtils.encode(1L, "x");
+        String trailing = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("L1:1S1:xS1:y".getBytes(StandardCharsets.UTF_8));
+
+        assertInvalid(() -> CursorUtils.decode(cursor, 3));
+        assertInvalid(() -> CursorUtils.decode(trailing, 2));
+        assertInvalid(() -> CursorUtils.decode("not a cursor!", 1));
+        assertInvalid(() -> CursorUtils.decode(cursor, Long.class, Long.class));
+    }
+
+    private static void assertInvalid(Runnable decode) {
+        BusinessException e = assertThrows(BusinessException.class, decode::run);
+        assertEquals(ResponseCode.PARAM_ERROR, e.getCode());
+    }
+}
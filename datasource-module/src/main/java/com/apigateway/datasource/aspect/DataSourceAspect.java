@@ -0,0 +1,69 @@
+package com.apigateway.datasource.aspect;
+
+import com.apigateway.common.annotation.DataSource;
+import com.apigateway.datasource.core.DataSourceContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * 数据源切换切面
+ * 处理方法或类上的 {@link DataSource} 注解（方法优先），进入时压栈切换数据源，退出时出栈恢复外层数据源；
+ * 优先级高于事务切面，事务开启时已切换到目标数据源
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourceAspect {
+
+    @Around("@annotation(com.apigateway.common.annotation.DataSource) "
+            + "|| @within(com.apigateway.common.annotation.DataSource)")
+    public Object around(ProceedingJoinPoint point) throws Throwable {
+        DataSource dataSource = resolve(point);
+        if (dataSource == null) {
+            return point.proceed();
+        }
+        DataSourceContextHolder.push(dataSource.value());
+        log.debug("切换数据源：{}", dataSource.value());
+        try {
+            return point.proceed();
+        } finally {
+            DataSourceContextHolder.poll();
+        }
+    }
+
+    /**
+     * 解析生效的注解：实现类方法 > 接口方法 > 实现类 > 声明类
+     */
+    private DataSource resolve(ProceedingJoinPoint point) {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        Class<?> targetClass = point.getTarget() != null ? AopUtils.getTargetClass(point.getTarget())
+                : method.getDeclaringClass();
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+
+        DataSource dataSource = AnnotatedElementUtils.findMergedAnnotation(specificMethod, DataSource.class);
+        if (dataSource == null) {
+            dataSource = AnnotatedElementUtils.findMergedAnnotation(method, DataSource.class);
+        }
+        if (dataSource == null) {
+            dataSource = AnnotatedElementUtils.findMergedAnnotation(targetClass, DataSource.class);
+        }
+        if (dataSource == null) {
+            dataSource = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), DataSource.class);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+package com.apigateway.datasource.balancer;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 最少活跃连接策略
+ * 按Druid连接池当前借出的连接数选择最空闲的读库，活跃数相同时轮询
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public class LeastActiveBalancer implements ReplicaBalancer {
+
+    /**
+     * 活跃数相同时的轮询起点
+     */
+    private final RoundRobinBalancer tieBreaker = new RoundRobinBalancer();
+
+    @Override
+    public int select(String group, List<DataSource> replicas) {
+        int size = replicas.size();
+        int start = tieBreaker.select(group, replicas);
+        int selected = start;
+        int minActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            int active = activeCount(replicas.get(index));
+            if (active < minActive) {
+                minActive = active;
+                selected = index;
+            }
+        }
+        return selected;
+    }
+
+    private static int activeCount(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(DruidDataSource.class)
+                    ? dataSource.unwrap(DruidDataSource.class).getActiveCount() : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.apigateway.datasource.balancer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 读库负载均衡策略
+ * 可注册自定义实现的Bean替换内置策略
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public interface ReplicaBalancer {
+
+    /**
+     * 从读库中选择一个
+     *
+     * @param group 数据源分组（主库名称）
+     * @param replicas 可用读库，非空
+     * @return 选中读库的下标
+     */
+    int select(String group, List<DataSource> replicas);
+}
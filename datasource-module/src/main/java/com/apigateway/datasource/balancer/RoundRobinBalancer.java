@@ -0,0 +1,27 @@
+package com.apigateway.datasource.balancer;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 轮询策略
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+public class RoundRobinBalancer implements ReplicaBalancer {
+
+    /**
+     * 分组 -> 计数器
+     */
+    private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public int select(String group, List<DataSource> replicas) {
+        int next = counters.computeIfAbsent(group, k -> new AtomicInteger()).getAndIncrement();
+        return (next & Integer.MAX_VALUE) % replicas.size();
+    }
+}
@@ -1,7 +1,10 @@
 package com.apigateway.datasource.config;
 
 import com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceBuilder;
+import com.apigateway.datasource.core.DataSourceContextHolder;
 import com.apigateway.datasource.core.DynamicDataSource;
+import com.apigateway.datasource.core.ReadWriteRouter;
+import com.apigateway.datasource.entity.DataSourceConfig;
 import com.apigateway.datasource.factory.DataSourceFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -34,8 +37,11 @@ public class DynamicDataSourceConfig {
      */
     @Bean
     @Primary
-    public DynamicDataSource dynamicDataSource(DataSourceFactory dataSourceFactory) {
+    public DynamicDataSource dynamicDataSource(DataSourceFactory dataSourceFactory,
+                                               ReadWriteProperties readWriteProperties,
+                                               ReadWriteRouter readWriteRouter) {
         DynamicDataSource dynamicDataSource = new DynamicDataSource();
+        dynamicDataSource.setReadWriteRouter(readWriteRouter);
 
         // 设置默认数据源
         DataSource masterDataSource = masterDataSource();
@@ -44,7 +50,15 @@ public class DynamicDataSourceConfig {
         // 设置数据源Map（包含主数据源）
         java.util.Map<Object, Object> dataSourceMap = new java.util.HashMap<>();
         dataSourceMap.put("master", masterDataSource);
+
+        // 主数据源的读库
+        for (DataSourceConfig replicaConfig : readWriteProperties.getMasterReplicas()) {
+            dataSourceMap.put(replicaConfig.getDsName(), dataSourceFactory.createPinnedDataSource(replicaConfig));
+            dynamicDataSource.addReplica(DataSourceContextHolder.DEFAULT_DATASOURCE, replicaConfig.getDsName());
+        }
         dynamicDataSource.setTargetDataSources(dataSourceMap);
+        // 未知数据源名称报错，不静默回落到主数据源
+        dynamicDataSource.setLenientFallback(false);
 
         return dynamicDataSource;
     }
@@ -0,0 +1,48 @@
+package com.apigateway.datasource.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据源健康检查配置
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.health")
+public class HealthCheckProperties {
+
+    /**
+     * 是否开启后台健康检查
+     */
+    private boolean enabled = true;
+
+    /**
+     * 检查间隔(毫秒)
+     */
+    private long interval = 30000;
+
+    /**
+     * 检查间隔随机抖动比例，避免多个实例同时检查
+     */
+    private double jitter = 0.2;
+
+    /**
+     * 单个数据源检查超时(秒)
+     */
+    private int timeout = 3;
+
+    /**
+     * 并行检查线程数
+     */
+    private int threads = 8;
+
+    /**
+     * 尚未检查过的数据源（新增、刚启用或服务刚启动）是否视为健康。
+     * 为true时首次检查前照常路由和执行；为false时在首次检查完成前视为不可用，读库路由跳过、执行快速失败
+     */
+    private boolean unknownHealthy = true;
+}
@@ -0,0 +1,91 @@
+package com.apigateway.datasource.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 动态数据源连接池回收和自动调优配置
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.pool")
+public class PoolProperties {
+
+    /**
+     * 连接池空闲多久后关闭(毫秒)，下次使用时重新创建，0表示不回收
+     */
+    private long idleTimeout = 600000;
+
+    /**
+     * 空闲回收检查间隔(毫秒)
+     */
+    private long evictionInterval = 60000;
+
+    /**
+     * 同时存在的连接池上限，超出时关闭最久未使用的连接池
+     */
+    private int maxPools = 50;
+
+    /**
+     * 所有连接池最大连接数（max_active）之和的上限，超出时关闭最久未使用的连接池
+     */
+    private int maxConnections = 1000;
+
+    /**
+     * 连接池大小自动调优配置
+     */
+    private AutoTune autoTune = new AutoTune();
+
+    @Data
+    public static class AutoTune {
+
+        /**
+         * 是否按观测到的并发和等待时间自动调整 maxActive / minIdle
+         */
+        private boolean enabled = false;
+
+        /**
+         * 采样间隔(毫秒)
+         */
+        private long sampleInterval = 1000;
+
+        /**
+         * 每多少个采样调整一次
+         */
+        private int samplesPerAdjust = 10;
+
+        /**
+         * 调整后 maxActive 的下限
+         */
+        private int minActive = 2;
+
+        /**
+         * 调整后 maxActive 的上限
+         */
+        private int maxActive = 100;
+
+        /**
+         * 调整后 minIdle 的下限
+         */
+        private int minIdle = 1;
+
+        /**
+         * 平均借用等待时间(毫秒)超过该值视为连接不足
+         */
+        private long targetWait = 5;
+
+        /**
+         * 在观测到的并发需求上预留的余量比例
+         */
+        private double headroom = 1.2;
+
+        /**
+         * 连接持有时间超过基线的倍数时视为数据库变慢，不再扩容
+         */
+        private double latencyTolerance = 2.0;
+    }
+}
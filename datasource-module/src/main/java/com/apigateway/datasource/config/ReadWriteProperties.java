@@ -0,0 +1,43 @@
+package com.apigateway.datasource.config;
+
+import com.apigateway.datasource.entity.DataSourceConfig;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.read-write")
+public class ReadWriteProperties {
+
+    /**
+     * 是否开启读写分离
+     */
+    private boolean enabled = true;
+
+    /**
+     * 读库负载均衡策略：round-robin / least-active
+     */
+    private String balancer = "round-robin";
+
+    /**
+     * 写操作后同一会话读主库的时间(ms)，保证读到自己的写入
+     * 写入记录保存在各实例内存中，多实例部署时负载均衡需按 X-Session-Id 保持会话粘滞，
+     * 否则写后的读请求落到其他实例时仍会读读库
+     */
+    private long pinMillis = 1000;
+
+    /**
+     * 主数据源（master）的读库
+     */
+    private List<DataSourceConfig> masterReplicas = new ArrayList<>();
+}
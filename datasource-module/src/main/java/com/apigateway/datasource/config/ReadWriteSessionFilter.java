@@ -0,0 +1,44 @@
+package com.apigateway.datasource.config;
+
+import com.apigateway.datasource.core.DataSourceContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 读写分离会话过滤器
+ * 以请求头 X-Session-Id 或认证用户标识会话，用于写后读主库；两者都没有时不标识会话，写后不固定读主库。
+ * 不使用客户端IP：负载均衡、反向代理或NAT之后所有客户端IP相同，一个客户端的写入会让所有读请求落到主库
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Component
+public class ReadWriteSessionFilter extends OncePerRequestFilter {
+
+    /**
+     * 会话标识请求头
+     */
+    public static final String SESSION_HEADER = "X-Session-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String session = request.getHeader(SESSION_HEADER);
+        if (!StringUtils.hasText(session) && request.getUserPrincipal() != null) {
+            session = request.getUserPrincipal().getName();
+        }
+        DataSourceContextHolder.setSession(StringUtils.hasText(session) ? session : null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DataSourceContextHolder.clearSession();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.apigateway.datasource.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * SQL执行统计配置
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.sql-stat")
+public class SqlStatProperties {
+
+    /**
+     * 是否在动态数据源连接池上统计SQL执行次数、耗时、读取行数和错误数
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最多统计的SQL数，超出后新SQL计入“其他”
+     */
+    private int maxSqlEntries = 1000;
+
+    /**
+     * 最多统计的API数，超出后新API不再单独统计
+     */
+    private int maxApiEntries = 1000;
+
+    /**
+     * 归一化SQL保留的最大长度
+     */
+    private int maxSqlLength = 2000;
+}
@@ -1,8 +1,15 @@
 package com.apigateway.datasource.core;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
 /**
  * 数据源上下文持有者
- * 用于存储和获取当前线程使用的数据源
+ * 用于存储和获取当前线程使用的数据源；数据源按栈保存，嵌套切换（如 @DataSource 方法互相调用）
+ * 退出内层后恢复外层数据源。任务交给其他线程执行时通过 wrap 方法传递数据源、会话、只读标记和执行的API
  *
  * @author apigateway
  * @since 1.0.0
@@ -10,9 +17,24 @@ package com.apigateway.datasource.core;
 public class DataSourceContextHolder {
 
     /**
-     * 数据源名称的线程本地变量
+     * 数据源名称栈的线程本地变量，栈顶为当前数据源
+     */
+    private static final ThreadLocal<Deque<String>> CONTEXT_HOLDER = new ThreadLocal<>();
+
+    /**
+     * 当前会话标识（读写分离的写后读主库按会话生效）
+     */
+    private static final ThreadLocal<String> SESSION_HOLDER = new ThreadLocal<>();
+
+    /**
+     * 是否只读操作（只读时可路由到读库）
      */
-    private static final ThreadLocal<String> CONTEXT_HOLDER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> READ_ONLY_HOLDER = new ThreadLocal<>();
+
+    /**
+     * 当前执行的API ID（SQL统计按API归类）
+     */
+    private static final ThreadLocal<Long> API_HOLDER = new ThreadLocal<>();
 
     /**
      * 主数据源名称
@@ -20,15 +42,37 @@ public class DataSourceContextHolder {
     public static final String DEFAULT_DATASOURCE = "master";
 
     /**
-     * 设置当前线程使用的数据源
+     * 设置当前线程使用的数据源（替换当前嵌套层的数据源）
      *
      * @param dataSourceName 数据源名称
      */
     public static void setDataSource(String dataSourceName) {
-        if (dataSourceName == null || dataSourceName.isEmpty()) {
-            dataSourceName = DEFAULT_DATASOURCE;
+        Deque<String> stack = stack();
+        stack.pollFirst();
+        stack.push(normalize(dataSourceName));
+    }
+
+    /**
+     * 进入新的嵌套层并切换数据源，需与 {@link #poll()} 成对调用
+     *
+     * @param dataSourceName 数据源名称
+     */
+    public static void push(String dataSourceName) {
+        stack().push(normalize(dataSourceName));
+    }
+
+    /**
+     * 退出当前嵌套层，恢复外层数据源
+     */
+    public static void poll() {
+        Deque<String> stack = CONTEXT_HOLDER.get();
+        if (stack == null) {
+            return;
+        }
+        stack.pollFirst();
+        if (stack.isEmpty()) {
+            CONTEXT_HOLDER.remove();
         }
-        CONTEXT_HOLDER.set(dataSourceName);
     }
 
     /**
@@ -37,14 +81,215 @@ public class DataSourceContextHolder {
      * @return 数据源名称
      */
     public static String getDataSource() {
-        String dataSourceName = CONTEXT_HOLDER.get();
+        Deque<String> stack = CONTEXT_HOLDER.get();
+        String dataSourceName = stack != null ? stack.peekFirst() : null;
         return dataSourceName != null ? dataSourceName : DEFAULT_DATASOURCE;
     }
 
     /**
-     * 清除当前线程的数据源
+     * 清除当前线程的数据源（包括所有嵌套层）
      */
     public static void clearDataSource() {
         CONTEXT_HOLDER.remove();
     }
+
+    private static Deque<String> stack() {
+        Deque<String> stack = CONTEXT_HOLDER.get();
+        if (stack == null) {
+            stack = new ArrayDeque<>();
+            CONTEXT_HOLDER.set(stack);
+        }
+        return stack;
+    }
+
+    private static String normalize(String dataSourceName) {
+        return dataSourceName == null || dataSourceName.isEmpty() ? DEFAULT_DATASOURCE : dataSourceName;
+    }
+
+    /**
+     * 设置当前线程的会话标识
+     *
+     * @param session 会话标识
+     */
+    public static void setSession(String session) {
+        SESSION_HOLDER.set(session);
+    }
+
+    /**
+     * 获取当前线程的会话标识
+     *
+     * @return 会话标识，未设置时返回null
+     */
+    public static String getSession() {
+        return SESSION_HOLDER.get();
+    }
+
+    /**
+     * 清除当前线程的会话标识
+     */
+    public static void clearSession() {
+        SESSION_HOLDER.remove();
+    }
+
+    /**
+     * 标记当前线程为只读操作
+     *
+     * @param readOnly 是否只读
+     */
+    public static void setReadOnly(boolean readOnly) {
+        if (readOnly) {
+            READ_ONLY_HOLDER.set(Boolean.TRUE);
+        } else {
+            READ_ONLY_HOLDER.remove();
+        }
+    }
+
+    /**
+     * 当前线程是否为只读操作
+     *
+     * @return 是否只读
+     */
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY_HOLDER.get());
+    }
+
+    /**
+     * 设置当前线程执行的API
+     *
+     * @param apiId API ID，为空时清除
+     */
+    public static void setApiId(Long apiId) {
+        if (apiId != null) {
+            API_HOLDER.set(apiId);
+        } else {
+            API_HOLDER.remove();
+        }
+    }
+
+    /**
+     * 获取当前线程执行的API
+     *
+     * @return API ID，未设置时返回null
+     */
+    public static Long getApiId() {
+        return API_HOLDER.get();
+    }
+
+    /**
+     * 捕获当前线程的数据源上下文
+     *
+     * @return 上下文快照
+     */
+    public static Snapshot capture() {
+        Deque<String> stack = CONTEXT_HOLDER.get();
+        return new Snapshot(stack != null && !stack.isEmpty() ? new ArrayDeque<>(stack) : null,
+                SESSION_HOLDER.get(), READ_ONLY_HOLDER.get(), API_HOLDER.get());
+    }
+
+    /**
+     * 包装任务，在执行线程中恢复提交时的数据源上下文，执行后还原执行线程原有上下文
+     *
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static Runnable wrap(Runnable task) {
+        Snapshot snapshot = capture();
+        return () -> {
+            Snapshot previous = snapshot.attach();
+            try {
+                task.run();
+            } finally {
+                previous.attach();
+            }
+        };
+    }
+
+    /**
+     * 包装任务，在执行线程中恢复提交时的数据源上下文
+     *
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        Snapshot snapshot = capture();
+        return () -> {
+            Snapshot previous = snapshot.attach();
+            try {
+                return task.call();
+            } finally {
+                previous.attach();
+            }
+        };
+    }
+
+    /**
+     * 包装任务（用于 CompletableFuture.supplyAsync），在执行线程中恢复提交时的数据源上下文
+     *
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static <V> Supplier<V> wrap(Supplier<V> task) {
+        Snapshot snapshot = capture();
+        return () -> {
+            Snapshot previous = snapshot.attach();
+            try {
+                return task.get();
+            } finally {
+                previous.attach();
+            }
+        };
+    }
+
+    /**
+     * 包装线程池，提交的任务自动携带提交线程的数据源上下文
+     *
+     * @param executor 线程池
+     * @return 包装后的线程池
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * 数据源上下文快照（数据源栈、会话标识、只读标记、执行的API）
+     */
+    public static final class Snapshot {
+
+        private final Deque<String> stack;
+
+        private final String session;
+
+        private final Boolean readOnly;
+
+        private final Long apiId;
+
+        private Snapshot(Deque<String> stack, String session, Boolean readOnly, Long apiId) {
+            this.stack = stack;
+            this.session = session;
+            this.readOnly = readOnly;
+            this.apiId = apiId;
+        }
+
+        /**
+         * 将快照设置为当前线程的上下文
+         *
+         * @return 设置前的上下文，用于还原
+         */
+        public Snapshot attach() {
+            Snapshot previous = capture();
+            set(CONTEXT_HOLDER, stack != null ? new ArrayDeque<>(stack) : null);
+            set(SESSION_HOLDER, session);
+            set(READ_ONLY_HOLDER, readOnly);
+            set(API_HOLDER, apiId);
+            return previous;
+        }
+
+        private static <T> void set(ThreadLocal<T> holder, T value) {
+            if (value != null) {
+                holder.set(value);
+            } else {
+                holder.remove();
+            }
+        }
+    }
 }
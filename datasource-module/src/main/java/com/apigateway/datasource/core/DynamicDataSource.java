@@ -1,18 +1,127 @@
 package com.apigateway.datasource.core;
 
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
 
 /**
  * 动态数据源
- * 根据上下文切换数据源
+ * 根据上下文切换数据源；数据源声明了读库时，只读操作（只读事务或
+ * DataSourceContextHolder.setReadOnly）按读写分离路由分发到读库；
+ * 目标数据源Map之外的名称（如 ds:{id}）交给数据源查找按需创建，未知名称直接报错
  *
  * @author apigateway
  * @since 1.0.0
  */
 public class DynamicDataSource extends AbstractRoutingDataSource {
 
+    /**
+     * 数据源名称 -> 读库名称列表
+     */
+    private final Map<String, List<String>> replicaGroups = new ConcurrentHashMap<>();
+
+    /**
+     * 读写分离路由
+     */
+    private ReadWriteRouter readWriteRouter;
+
+    /**
+     * 目标数据源Map之外的数据源查找（名称, 是否只读 -> 数据源），无法识别时返回null
+     */
+    private BiFunction<String, Boolean, DataSource> dataSourceLookup;
+
+    public void setReadWriteRouter(ReadWriteRouter readWriteRouter) {
+        this.readWriteRouter = readWriteRouter;
+    }
+
+    public void setDataSourceLookup(BiFunction<String, Boolean, DataSource> dataSourceLookup) {
+        this.dataSourceLookup = dataSourceLookup;
+    }
+
+    /**
+     * 声明读库（读库需同时放入目标数据源Map）
+     *
+     * @param dataSourceName 主数据源名称
+     * @param replicaName 读库名称
+     */
+    public void addReplica(String dataSourceName, String replicaName) {
+        replicaGroups.computeIfAbsent(dataSourceName, k -> new CopyOnWriteArrayList<>()).add(replicaName);
+    }
+
     @Override
     protected Object determineCurrentLookupKey() {
-        return DataSourceContextHolder.getDataSource();
+        String dataSourceName = DataSourceContextHolder.getDataSource();
+        if (isReadOnly()) {
+            String replica = selectReplica(dataSourceName);
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return dataSourceName;
+    }
+
+    @Override
+    protected DataSource determineTargetDataSource() {
+        DataSource dataSource = lookup(DataSourceContextHolder.getDataSource(), isReadOnly());
+        return dataSource != null ? dataSource : super.determineTargetDataSource();
+    }
+
+    /**
+     * 解析当前上下文可用于读操作的数据源
+     *
+     * @return 读库列表，负载均衡选中的读库在前（其余读库供对冲读取）；无可用读库时只包含当前数据源
+     */
+    public List<DataSource> determineReadDataSources() {
+        String dataSourceName = DataSourceContextHolder.getDataSource();
+        DataSource external = lookup(dataSourceName, true);
+        if (external != null) {
+            return Collections.singletonList(external);
+        }
+        List<String> replicaNames = replicaGroups.get(dataSourceName);
+        if (readWriteRouter == null || replicaNames == null || replicaNames.isEmpty()) {
+            return Collections.singletonList(determineTargetDataSource());
+        }
+        List<DataSource> ordered = readWriteRouter.orderReplicas(dataSourceName, resolveReplicas(replicaNames));
+        return ordered.isEmpty() ? Collections.singletonList(determineTargetDataSource()) : ordered;
+    }
+
+    private static boolean isReadOnly() {
+        return DataSourceContextHolder.isReadOnly() || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * 查找目标数据源Map之外的数据源
+     */
+    private DataSource lookup(String dataSourceName, boolean readOnly) {
+        if (dataSourceLookup == null || getResolvedDataSources().containsKey(dataSourceName)) {
+            return null;
+        }
+        return dataSourceLookup.apply(dataSourceName, readOnly);
+    }
+
+    private String selectReplica(String dataSourceName) {
+        List<String> replicaNames = replicaGroups.get(dataSourceName);
+        if (readWriteRouter == null || replicaNames == null || replicaNames.isEmpty()) {
+            return null;
+        }
+        int index = readWriteRouter.selectReplica(dataSourceName, resolveReplicas(replicaNames));
+        return index >= 0 ? replicaNames.get(index) : null;
+    }
+
+    private List<DataSource> resolveReplicas(List<String> replicaNames) {
+        Map<Object, DataSource> resolved = getResolvedDataSources();
+        List<DataSource> replicas = new ArrayList<>(replicaNames.size());
+        for (String name : replicaNames) {
+            replicas.add(resolved.get(name));
+        }
+        return replicas;
     }
 }
@@ -0,0 +1,134 @@
+package com.apigateway.datasource.core;
+
+import com.apigateway.datasource.balancer.LeastActiveBalancer;
+import com.apigateway.datasource.balancer.ReplicaBalancer;
+import com.apigateway.datasource.balancer.RoundRobinBalancer;
+import com.apigateway.datasource.config.ReadWriteProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读写分离路由
+ * 读操作按负载均衡策略分发到读库；会话写入后的短时间内固定读主库（read-your-writes）
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ReadWriteRouter {
+
+    /**
+     * 固定记录数超过该值时清理过期记录
+     */
+    private static final int PIN_PURGE_THRESHOLD = 10000;
+
+    @Autowired
+    private ReadWriteProperties readWriteProperties;
+
+    @Autowired
+    private ObjectProvider<ReplicaBalancer> balancerProvider;
+
+    /**
+     * 负载均衡策略
+     */
+    private ReplicaBalancer balancer;
+
+    /**
+     * 分组 + 会话 -> 固定读主库的截止时间
+     */
+    private final Map<String, Long> pins = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // 优先使用自定义策略Bean
+        balancer = balancerProvider.getIfAvailable(() ->
+                "least-active".equalsIgnoreCase(readWriteProperties.getBalancer())
+                        ? new LeastActiveBalancer() : new RoundRobinBalancer());
+        log.info("读写分离：{}，读库负载均衡策略：{}", readWriteProperties.isEnabled() ? "开启" : "关闭",
+                balancer.getClass().getSimpleName());
+    }
+
+    /**
+     * 为读操作选择读库
+     *
+     * @param group 数据源分组
+     * @param replicas 可用读库
+     * @return 读库下标，应使用主库时返回-1
+     */
+    public int selectReplica(String group, List<DataSource> replicas) {
+        if (!readWriteProperties.isEnabled() || replicas.isEmpty() || isPinned(group)) {
+            return -1;
+        }
+        return balancer.select(group, replicas);
+    }
+
+    /**
+     * 为对冲读取排列读库：负载均衡选中的读库在前，其余读库依次在后
+     *
+     * @param group 数据源分组
+     * @param replicas 可用读库
+     * @return 排列后的读库，应使用主库时返回空列表
+     */
+    public List<DataSource> orderReplicas(String group, List<DataSource> replicas) {
+        int selected = selectReplica(group, replicas);
+        if (selected < 0) {
+            return Collections.emptyList();
+        }
+        List<DataSource> ordered = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ordered.add(replicas.get((selected + i) % replicas.size()));
+        }
+        return ordered;
+    }
+
+    /**
+     * 记录当前会话的写操作，之后一段时间内该会话读主库
+     *
+     * @param group 数据源分组
+     */
+    public void markWrite(String group) {
+        String session = DataSourceContextHolder.getSession();
+        if (session == null || readWriteProperties.getPinMillis() <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (pins.size() > PIN_PURGE_THRESHOLD) {
+            pins.values().removeIf(expireAt -> expireAt < now);
+        }
+        pins.put(group + "|" + session, now + readWriteProperties.getPinMillis());
+    }
+
+    /**
+     * 当前会话是否固定读主库
+     *
+     * @param group 数据源分组
+     * @return 是否固定读主库
+     */
+    public boolean isPinned(String group) {
+        String session = DataSourceContextHolder.getSession();
+        if (session == null) {
+            return false;
+        }
+        String key = group + "|" + session;
+        Long expireAt = pins.get(key);
+        if (expireAt == null) {
+            return false;
+        }
+        if (expireAt < System.currentTimeMillis()) {
+            pins.remove(key, expireAt);
+            return false;
+        }
+        return true;
+    }
+}
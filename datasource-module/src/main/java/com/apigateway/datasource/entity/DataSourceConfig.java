@@ -99,6 +99,12 @@ public class DataSourceConfig implements Serializable {
     @TableField("status")
     private Integer status;
 
+    /**
+     * 所属主数据源ID，非空表示该数据源是该主数据源的读库
+     */
+    @TableField("replica_of")
+    private Long replicaOf;
+
     /**
      * 健康状态：0-异常，1-正常
      */
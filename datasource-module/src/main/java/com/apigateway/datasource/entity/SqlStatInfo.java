@@ -0,0 +1,58 @@
+package com.apigateway.datasource.entity;
+
+import lombok.Data;
+
+/**
+ * SQL执行统计
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Data
+public class SqlStatInfo {
+
+    /**
+     * 归一化SQL（按SQL统计时）
+     */
+    private String sql;
+
+    /**
+     * API ID（按API统计时）
+     */
+    private Long apiId;
+
+    /**
+     * 执行次数
+     */
+    private Long executeCount;
+
+    /**
+     * 执行失败次数
+     */
+    private Long errorCount;
+
+    /**
+     * 总执行时间(毫秒)
+     */
+    private Double totalMillis;
+
+    /**
+     * 平均执行时间(毫秒)
+     */
+    private Double avgMillis;
+
+    /**
+     * 最大执行时间(毫秒)
+     */
+    private Double maxMillis;
+
+    /**
+     * 读取行数
+     */
+    private Long fetchRows;
+
+    /**
+     * 更新行数
+     */
+    private Long updateRows;
+}
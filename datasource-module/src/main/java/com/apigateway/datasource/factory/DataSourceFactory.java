@@ -1,19 +1,39 @@
 package com.apigateway.datasource.factory;
 
 import com.alibaba.druid.pool.DruidDataSource;
+import com.apigateway.datasource.config.PoolProperties;
+import com.apigateway.datasource.config.SqlStatProperties;
 import com.apigateway.datasource.core.DatabaseType;
 import com.apigateway.datasource.entity.DataSourceConfig;
+import com.apigateway.datasource.stat.SqlStatFilter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 数据源工厂
- * 用于创建和管理数据源
+ * 用于创建和管理数据源：同一数据源的连接池只初始化一次；配置变更后切换到新连接池，
+ * 旧连接池等借出的连接全部归还后再关闭；长时间未使用的连接池自动关闭，连接池数和总连接数超限时按LRU淘汰。
+ * 返回给调用方的数据源是连接池持有者，调用方拿到后连接池被替换或关闭时，借用连接转到当前连接池
  *
  * @author apigateway
  * @since 1.0.0
@@ -23,28 +43,228 @@ import java.util.Map;
 public class DataSourceFactory {
 
     /**
-     * 数据源缓存
+     * 旧连接池排空检查间隔(毫秒)
      */
-    private final Map<String, DataSource> dataSourceCache = new HashMap<>();
+    private static final long DRAIN_CHECK_INTERVAL = 1000L;
+
+    /**
+     * 连接池使用者数的关闭状态，置为关闭后不再借出连接
+     */
+    private static final int CLOSING = -1;
+
+    /**
+     * 数据源缓存（缓存键 -> 连接池）
+     */
+    private final Map<String, PoolHolder> dataSourceCache = new ConcurrentHashMap<>();
+
+    /**
+     * 排空中的旧连接池
+     */
+    private final Map<DruidDataSource, Boolean> draining = new ConcurrentHashMap<>();
+
+    /**
+     * 空闲回收和LRU淘汰的连接池数
+     */
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * 旧连接池排空检查和空闲回收线程
+     */
+    private final ScheduledExecutorService drainScheduler =
+            Executors.newSingleThreadScheduledExecutor(daemonThreadFactory());
+
+    /**
+     * 旧连接池等待借出连接归还的最长时间(毫秒)，超时后强制关闭
+     */
+    @Value("${datasource.drain-timeout:60000}")
+    private long drainTimeout;
+
+    @Autowired
+    private PoolProperties poolProperties;
+
+    @Autowired
+    private SqlStatProperties sqlStatProperties;
+
+    @Autowired
+    private SqlStatFilter sqlStatFilter;
+
+    @PostConstruct
+    public void init() {
+        long interval = poolProperties.getEvictionInterval();
+        if (poolProperties.getIdleTimeout() > 0 && interval > 0) {
+            drainScheduler.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
 
     /**
      * 创建数据源
+     * 已存在且配置未变化时直接返回；配置变化时创建新连接池替换，旧连接池排空后关闭
      *
      * @param config 数据源配置
      * @return 数据源
      */
     public DataSource createDataSource(DataSourceConfig config) {
+        return createDataSource(config, false);
+    }
+
+    /**
+     * 创建常驻数据源（被路由数据源直接引用），不参与空闲回收和LRU淘汰
+     *
+     * @param config 数据源配置
+     * @return 数据源
+     */
+    public DataSource createPinnedDataSource(DataSourceConfig config) {
+        return createDataSource(config, true);
+    }
+
+    private DataSource createDataSource(DataSourceConfig config, boolean pinned) {
         if (config == null) {
             throw new IllegalArgumentException("数据源配置不能为空");
         }
 
-        String cacheKey = config.getDsName();
+        String cacheKey = cacheKey(config);
+        String fingerprint = fingerprint(config);
+
+        PoolHolder holder = dataSourceCache.get(cacheKey);
+        if (holder == null || holder.isClosing() || !holder.fingerprint.equals(fingerprint)) {
+            PoolHolder[] replaced = new PoolHolder[1];
+            holder = dataSourceCache.compute(cacheKey, (key, current) -> {
+                if (current != null && !current.isClosing()
+                        && (current.fingerprint.equals(fingerprint) || current.isNewerThan(config))) {
+                    // 配置相同，或调用方持有的是旧配置，不切换
+                    return current;
+                }
+                replaced[0] = current;
+                return new PoolHolder(key, config, fingerprint, pinned || (current != null && current.pinned));
+            });
+            if (replaced[0] != null) {
+                log.info("数据源配置已变更，切换连接池：{}", cacheKey);
+                drain(replaced[0]);
+            }
+        }
+        if (pinned) {
+            holder.pinned = true;
+        }
+        holder.lastAccess = System.currentTimeMillis();
+        holder.initialize();
+        return holder;
+    }
+
+    /**
+     * 调用方持有的连接池已关闭时，找到接替的连接池：已被替换时使用当前连接池，已回收时重新创建
+     */
+    private PoolHolder successor(PoolHolder stale) throws SQLException {
+        if (stale.removed) {
+            throw new SQLException("数据源已移除：" + stale.key);
+        }
+        PoolHolder current = dataSourceCache.get(stale.key);
+        if (current != null && current != stale) {
+            return current;
+        }
+        return (PoolHolder) createDataSource(stale.config, stale.pinned);
+    }
+
+    /**
+     * 关闭超过空闲时间未使用的连接池，下次使用时重新创建（已拿到连接池的调用方借用连接时也会重新创建）
+     */
+    private void evictIdle() {
+        long expireBefore = System.currentTimeMillis() - poolProperties.getIdleTimeout();
+        for (PoolHolder holder : dataSourceCache.values()) {
+            DruidDataSource dataSource = holder.initialized();
+            if (dataSource != null && !holder.pinned && !holder.isClosing() && holder.lastAccess < expireBefore
+                    && dataSource.getActiveCount() == 0) {
+                evict(holder, "空闲超时");
+            }
+        }
+    }
+
+    /**
+     * 新连接池创建后检查连接池数和总连接数上限，超出时淘汰最久未使用的连接池
+     */
+    private synchronized void enforceLimits(PoolHolder created) {
+        while (true) {
+            int pools = 0;
+            int connections = 0;
+            PoolHolder eldest = null;
+            for (PoolHolder holder : dataSourceCache.values()) {
+                DruidDataSource dataSource = holder.initialized();
+                if (dataSource == null || holder.isClosing()) {
+                    continue;
+                }
+                pools++;
+                connections += dataSource.getMaxActive();
+                if (holder != created && !holder.pinned && (eldest == null || holder.lastAccess < eldest.lastAccess)) {
+                    eldest = holder;
+                }
+            }
+            if ((pools <= poolProperties.getMaxPools() && connections <= poolProperties.getMaxConnections())
+                    || eldest == null || !evict(eldest, "超出连接池上限")) {
+                return;
+            }
+        }
+    }
 
-        // 从缓存中获取
-        if (dataSourceCache.containsKey(cacheKey)) {
-            return dataSourceCache.get(cacheKey);
+    /**
+     * 回收连接池：只在没有调用正在借用连接时回收，先置为关闭状态再移出缓存，
+     * 之后借用连接的调用方转到重新创建的连接池
+     *
+     * @return 是否已回收，有调用正在借用连接时返回false
+     */
+    private boolean evict(PoolHolder holder, String reason) {
+        if (!holder.markClosing()) {
+            return false;
         }
+        if (dataSourceCache.remove(holder.key, holder)) {
+            evicted.increment();
+            log.info("回收连接池：{}，原因：{}", holder.key, reason);
+        }
+        drain(holder);
+        return true;
+    }
 
+    /**
+     * 获取已创建的连接池，不触发创建
+     *
+     * @param config 数据源配置
+     * @return 连接池，未创建或配置已变化时返回null
+     */
+    public DataSource getCreatedDataSource(DataSourceConfig config) {
+        PoolHolder holder = dataSourceCache.get(cacheKey(config));
+        return holder != null && holder.fingerprint.equals(fingerprint(config)) && holder.initialized() != null
+                ? holder : null;
+    }
+
+    /**
+     * 配置变更后切换连接池，未创建过连接池的数据源忽略
+     * 新连接池先初始化再替换，切换期间请求不中断
+     *
+     * @param config 最新的数据源配置
+     */
+    public void refreshDataSource(DataSourceConfig config) {
+        PoolHolder current = dataSourceCache.get(cacheKey(config));
+        if (current != null && !current.fingerprint.equals(fingerprint(config))) {
+            createDataSource(config);
+        }
+    }
+
+    /**
+     * 移除数据源（删除或禁用后），连接池排空后关闭
+     *
+     * @param config 数据源配置
+     */
+    public void removeDataSource(DataSourceConfig config) {
+        PoolHolder holder = dataSourceCache.remove(cacheKey(config));
+        if (holder != null) {
+            holder.removed = true;
+            log.info("移除数据源：{}", holder.key);
+            drain(holder);
+        }
+    }
+
+    /**
+     * 创建并初始化Druid连接池
+     */
+    private DruidDataSource buildDataSource(String cacheKey, DataSourceConfig config) {
         // 创建Druid数据源
         DruidDataSource dataSource = new DruidDataSource();
 
@@ -118,34 +338,282 @@ public class DataSourceFactory {
             dataSource.setTimeBetweenEvictionRunsMillis(60000);
             dataSource.setMinEvictableIdleTimeMillis(300000);
 
+            // 开启PSCache，API的SQL模板编译为固定文本后可复用预编译语句
+            dataSource.setPoolPreparedStatements(true);
+            dataSource.setMaxPoolPreparedStatementPerConnectionSize(20);
+
+            // MySQL开启游标拉取，流式查询设置fetchSize后按批读取而不是缓存整个结果集；
+            // 开启批量重写，批量写入合并为多值INSERT，减少网络往返
+            if (DatabaseType.fromCode(config.getDsType()) == DatabaseType.MYSQL) {
+                Properties connectProperties = new Properties();
+                connectProperties.setProperty("useCursorFetch", "true");
+                connectProperties.setProperty("rewriteBatchedStatements", "true");
+                dataSource.setConnectProperties(connectProperties);
+            }
+
+            // JDBC层SQL执行统计
+            if (sqlStatProperties.isEnabled()) {
+                dataSource.getProxyFilters().add(sqlStatFilter);
+            }
+
             // 初始化数据源
             dataSource.init();
 
-            // 加入缓存
-            dataSourceCache.put(cacheKey, dataSource);
-
             log.info("数据源创建成功：{}", cacheKey);
             return dataSource;
 
         } catch (SQLException e) {
+            dataSource.close();
             log.error("创建数据源失败：{}", cacheKey, e);
             throw new RuntimeException("创建数据源失败：" + e.getMessage());
         }
     }
 
     /**
-     * 获取数据源缓存
+     * 缓存键：已保存的配置按ID区分，改名不影响；未保存的配置（如连接测试）按名称区分
+     */
+    private static String cacheKey(DataSourceConfig config) {
+        return config.getId() != null ? "ds:" + config.getId() : config.getDsName();
+    }
+
+    /**
+     * 影响连接池的配置项，任一变化都需要重建连接池
+     */
+    private static String fingerprint(DataSourceConfig config) {
+        return String.join("|", config.getDsType(), config.getJdbcUrl(), config.getUsername(),
+                config.getPassword(), config.getDriverClass(), String.valueOf(config.getInitialSize()),
+                String.valueOf(config.getMaxActive()), String.valueOf(config.getMinIdle()),
+                String.valueOf(config.getMaxWait()), config.getTestQuery());
+    }
+
+    /**
+     * 排空并关闭旧连接池：不再借出新连接，借出的连接全部归还或超时后关闭
+     */
+    private void drain(PoolHolder holder) {
+        DruidDataSource dataSource = holder.initialized();
+        if (dataSource == null || draining.putIfAbsent(dataSource, Boolean.TRUE) != null) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + drainTimeout;
+        drainScheduler.execute(() -> drainCheck(holder, dataSource, deadline));
+    }
+
+    /**
+     * 检查旧连接池能否关闭：先等正在借用连接的调用结束并置为关闭状态，再等借出的连接归还，
+     * 未满足时稍后重新检查
+     */
+    private void drainCheck(PoolHolder holder, DruidDataSource dataSource, long deadline) {
+        boolean expired = System.currentTimeMillis() >= deadline;
+        boolean closing = holder.markClosing();
+        int active = dataSource.getActiveCount();
+        if ((!closing || active > 0) && !expired) {
+            drainScheduler.schedule(() -> drainCheck(holder, dataSource, deadline),
+                    DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+            return;
+        }
+        if (!closing || active > 0) {
+            holder.users.set(CLOSING);
+            log.warn("旧连接池排空超时，强制关闭：{}，未归还连接数：{}", holder.key, active);
+        }
+        dataSource.close();
+        draining.remove(dataSource);
+        log.info("旧连接池已关闭：{}", holder.key);
+    }
+
+    /**
+     * 获取数据源缓存（只包含已初始化的连接池）
      *
      * @return 数据源缓存
      */
     public Map<String, DataSource> getDataSourceCache() {
-        return dataSourceCache;
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSourceCache.forEach((key, holder) -> {
+            DruidDataSource dataSource = holder.initialized();
+            if (dataSource != null) {
+                dataSources.put(key, dataSource);
+            }
+        });
+        return Collections.unmodifiableMap(dataSources);
     }
 
     /**
-     * 清除缓存
+     * 排空中的旧连接池数
+     */
+    public int getDrainingCount() {
+        return draining.size();
+    }
+
+    /**
+     * 空闲回收和LRU淘汰的连接池数
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * 清除缓存，连接池排空后关闭
      */
     public void clearCache() {
-        dataSourceCache.clear();
+        for (String key : dataSourceCache.keySet()) {
+            PoolHolder holder = dataSourceCache.remove(key);
+            if (holder != null) {
+                holder.removed = true;
+                drain(holder);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        drainScheduler.shutdownNow();
+        dataSourceCache.values().forEach(holder -> {
+            DruidDataSource dataSource = holder.initialized();
+            if (dataSource != null) {
+                dataSource.close();
+            }
+        });
+        draining.keySet().forEach(DruidDataSource::close);
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datasource-drain-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    /**
+     * 连接池持有者，首次获取时初始化，同一持有者只初始化一次
+     * 作为数据源返回给调用方，借用连接期间计为使用者；关闭前先在没有使用者时置为关闭状态，
+     * 之后借用连接转到接替的连接池，调用方不会借到已关闭的连接池
+     */
+    private final class PoolHolder extends AbstractDataSource {
+
+        private final String key;
+
+        private final DataSourceConfig config;
+
+        private final String fingerprint;
+
+        /**
+         * 是否常驻（不回收）
+         */
+        private volatile boolean pinned;
+
+        /**
+         * 最近使用时间（获取数据源或借用连接时更新）
+         */
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        /**
+         * 正在借用连接的调用数，为 CLOSING 时已关闭
+         */
+        private final AtomicInteger users = new AtomicInteger();
+
+        /**
+         * 是否已移除（数据源删除或禁用），移除后不再重新创建
+         */
+        private volatile boolean removed;
+
+        private volatile DruidDataSource dataSource;
+
+        PoolHolder(String key, DataSourceConfig config, String fingerprint, boolean pinned) {
+            this.key = key;
+            this.config = config;
+            this.fingerprint = fingerprint;
+            this.pinned = pinned;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getConnection(null, null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            PoolHolder holder = this;
+            while (!holder.acquire()) {
+                holder = successor(holder);
+            }
+            // 按实际借用连接的时间判断空闲，调用方长期持有数据源对象时也不会被误回收
+            holder.lastAccess = System.currentTimeMillis();
+            try {
+                DruidDataSource pool = holder.initialize();
+                return username == null ? pool.getConnection() : pool.getConnection(username, password);
+            } finally {
+                holder.users.decrementAndGet();
+            }
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return iface.isInstance(this) ? iface.cast(this) : initialize().unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || initialize().isWrapperFor(iface);
+        }
+
+        /**
+         * 登记一个使用者，已关闭时返回false
+         */
+        private boolean acquire() {
+            while (true) {
+                int current = users.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (users.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 没有使用者时置为关闭状态
+         *
+         * @return 是否已处于关闭状态
+         */
+        boolean markClosing() {
+            return users.get() < 0 || users.compareAndSet(0, CLOSING);
+        }
+
+        boolean isClosing() {
+            return users.get() < 0;
+        }
+
+        DruidDataSource initialize() {
+            DruidDataSource current = dataSource;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (dataSource != null) {
+                    return dataSource;
+                }
+                try {
+                    current = buildDataSource(key, config);
+                } catch (RuntimeException e) {
+                    // 初始化失败不缓存，下次调用重新创建
+                    dataSourceCache.remove(key, this);
+                    throw e;
+                }
+                dataSource = current;
+            }
+            enforceLimits(this);
+            return current;
+        }
+
+        DruidDataSource initialized() {
+            return dataSource;
+        }
+
+        /**
+         * 当前连接池的配置是否比传入的配置更新
+         */
+        boolean isNewerThan(DataSourceConfig other) {
+            return config.getUpdateTime() != null && other.getUpdateTime() != null
+                    && config.getUpdateTime().isAfter(other.getUpdateTime());
+        }
     }
 }
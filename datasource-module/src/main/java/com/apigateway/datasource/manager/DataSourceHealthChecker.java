@@ -0,0 +1,260 @@
+package com.apigateway.datasource.manager;
+
+import com.apigateway.datasource.config.HealthCheckProperties;
+import com.apigateway.datasource.core.DatabaseType;
+import com.apigateway.datasource.entity.DataSourceConfig;
+import com.apigateway.datasource.factory.DataSourceFactory;
+import com.apigateway.datasource.mapper.DataSourceConfigMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源后台健康检查
+ * 定时并行检查所有启用的数据源（间隔带随机抖动，单个检查有超时），结果缓存在内存中供路由和熔断使用，
+ * 并以一条语句批量写回 health_status / last_check_time，请求路径上不做同步检查
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class DataSourceHealthChecker {
+
+    @Autowired
+    private HealthCheckProperties healthCheckProperties;
+
+    @Autowired
+    private DataSourceConfigMapper dataSourceConfigMapper;
+
+    @Autowired
+    private DataSourceFactory dataSourceFactory;
+
+    /**
+     * 数据源ID -> 是否健康
+     */
+    private final Map<Long, Boolean> healthStates = new ConcurrentHashMap<>();
+
+    /**
+     * 上一轮尚未结束的检查（超时的检查线程仍在等待连接），本轮跳过
+     */
+    private final Set<Long> checking = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 检查调度线程
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 并行检查线程池
+     */
+    private ThreadPoolExecutor probeExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (!healthCheckProperties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("datasource-health-"));
+        int threads = Math.max(1, healthCheckProperties.getThreads());
+        probeExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreadFactory("datasource-probe-"));
+        probeExecutor.allowCoreThreadTimeOut(true);
+        scheduleNext();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            probeExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 数据源是否健康（读取缓存的检查结果）
+     * 主数据源不检查，视为健康；尚未检查过的数据源按 unknownHealthy 配置处理，
+     * 关闭健康检查时所有数据源视为健康
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @return 是否健康
+     */
+    public boolean isHealthy(Long datasourceId) {
+        if (datasourceId == null || !healthCheckProperties.isEnabled()) {
+            return true;
+        }
+        Boolean healthy = healthStates.get(datasourceId);
+        return healthy != null ? healthy : healthCheckProperties.isUnknownHealthy();
+    }
+
+    /**
+     * 下一轮检查，间隔加随机抖动
+     */
+    private void scheduleNext() {
+        long interval = healthCheckProperties.getInterval();
+        double jitter = healthCheckProperties.getJitter();
+        long delay = (long) (interval * (1 + jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1)));
+        scheduler.schedule(() -> {
+            try {
+                checkAll();
+            } catch (Exception e) {
+                log.error("数据源健康检查失败", e);
+            } finally {
+                if (!scheduler.isShutdown()) {
+                    scheduleNext();
+                }
+            }
+        }, Math.max(1000, delay), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 并行检查所有启用的数据源，等待全部完成或超时后批量写回结果
+     */
+    public void checkAll() {
+        LambdaQueryWrapper<DataSourceConfig> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(DataSourceConfig::getStatus, 1);
+        List<DataSourceConfig> configs = dataSourceConfigMapper.selectList(wrapper);
+
+        Set<Long> enabledIds = new HashSet<>();
+        Map<Long, CompletableFuture<Boolean>> probes = new LinkedHashMap<>();
+        for (DataSourceConfig config : configs) {
+            enabledIds.add(config.getId());
+            if (checking.add(config.getId())) {
+                probes.put(config.getId(), CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return probe(config);
+                    } finally {
+                        checking.remove(config.getId());
+                    }
+                }, probeExecutor));
+            }
+        }
+
+        int timeout = Math.max(1, healthCheckProperties.getTimeout());
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+        Map<Long, Integer> results = new LinkedHashMap<>();
+        for (Map.Entry<Long, CompletableFuture<Boolean>> entry : probes.entrySet()) {
+            boolean healthy;
+            try {
+                healthy = entry.getValue().get(Math.max(0, deadline - System.currentTimeMillis()),
+                        TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // 超时或检查异常
+                healthy = false;
+            }
+            Boolean previous = healthStates.put(entry.getKey(), healthy);
+            if (previous != null && previous != healthy) {
+                log.warn("数据源健康状态变更：{}，{}", entry.getKey(), healthy ? "恢复正常" : "异常");
+            }
+            results.put(entry.getKey(), healthy ? 1 : 0);
+        }
+        // 已删除或禁用的数据源不再跟踪
+        healthStates.keySet().retainAll(enabledIds);
+
+        if (!results.isEmpty()) {
+            dataSourceConfigMapper.updateHealthStatus(results, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 检查单个数据源：已创建连接池时借用连接检查，否则直接建立连接，不为未使用的数据源创建连接池
+     */
+    private boolean probe(DataSourceConfig config) {
+        int timeout = Math.max(1, healthCheckProperties.getTimeout());
+        DataSource dataSource = dataSourceFactory.getCreatedDataSource(config);
+        try (Connection connection = dataSource != null ? dataSource.getConnection() : connect(config, timeout)) {
+            return connection.isValid(timeout);
+        } catch (Exception e) {
+            log.debug("数据源健康检查异常：{}，{}", config.getDsName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 直接建立连接，按数据库类型设置建连和读取超时，数据库无响应时检查线程不会一直阻塞
+     */
+    private static Connection connect(DataSourceConfig config, int timeoutSeconds) throws Exception {
+        DatabaseType type = DatabaseType.fromCode(config.getDsType());
+        String driverClass = config.getDriverClass();
+        if (driverClass == null || driverClass.isEmpty()) {
+            driverClass = type != null ? type.getDriverClassName() : null;
+        } else if (type == null) {
+            type = DatabaseType.fromDriverClassName(driverClass);
+        }
+        if (driverClass != null) {
+            Class.forName(driverClass);
+        }
+        Properties properties = new Properties();
+        if (config.getUsername() != null) {
+            properties.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            properties.setProperty("password", config.getPassword());
+        }
+        setTimeouts(properties, type, timeoutSeconds);
+        return DriverManager.getConnection(config.getJdbcUrl(), properties);
+    }
+
+    /**
+     * 设置驱动的建连和读取超时（各驱动的属性名和单位不同）；
+     * 不使用 DriverManager.setLoginTimeout，它是全局设置，会影响其他建立连接的代码
+     */
+    private static void setTimeouts(Properties properties, DatabaseType type, int timeoutSeconds) {
+        if (type == null) {
+            return;
+        }
+        String millis = String.valueOf(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        String seconds = String.valueOf(timeoutSeconds);
+        switch (type) {
+            case MYSQL:
+            case DM:
+                properties.setProperty("connectTimeout", millis);
+                properties.setProperty("socketTimeout", millis);
+                break;
+            case POSTGRESQL:
+                properties.setProperty("connectTimeout", seconds);
+                properties.setProperty("loginTimeout", seconds);
+                properties.setProperty("socketTimeout", seconds);
+                break;
+            case ORACLE:
+                properties.setProperty("oracle.net.CONNECT_TIMEOUT", millis);
+                properties.setProperty("oracle.jdbc.ReadTimeout", millis);
+                break;
+            case SQLSERVER:
+                properties.setProperty("loginTimeout", seconds);
+                properties.setProperty("socketTimeout", millis);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -1,15 +1,34 @@
 package com.apigateway.datasource.manager;
 
+import com.apigateway.common.exception.BusinessException;
+import com.apigateway.common.exception.ErrorCode;
 import com.apigateway.datasource.core.DataSourceContextHolder;
+import com.apigateway.datasource.core.DatabaseType;
+import com.apigateway.datasource.core.DynamicDataSource;
+import com.apigateway.datasource.core.ReadWriteRouter;
 import com.apigateway.datasource.entity.DataSourceConfig;
 import com.apigateway.datasource.factory.DataSourceFactory;
+import com.apigateway.datasource.mapper.DataSourceConfigMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 数据源管理器
@@ -22,9 +41,109 @@ import java.util.Map;
 @Component
 public class DataSourceManager {
 
+    /**
+     * 按ID管理的数据源名称前缀（ds:{id}），可用于 @DataSource 注解
+     */
+    public static final String GROUP_PREFIX = "ds:";
+
     @Autowired
     private DataSourceFactory dataSourceFactory;
 
+    @Autowired
+    private DataSourceConfigMapper dataSourceConfigMapper;
+
+    /**
+     * 主数据源（动态数据源，未指定数据源ID时使用）
+     */
+    @Autowired
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReadWriteRouter readWriteRouter;
+
+    @Autowired
+    private DataSourceHealthChecker healthChecker;
+
+    /**
+     * 读库ID缓存（主数据源ID -> 读库ID列表）
+     */
+    private final Map<Long, List<Long>> replicaCache = new ConcurrentHashMap<>();
+
+    /**
+     * 主数据源驱动类名
+     */
+    @Value("${spring.datasource.dynamic.datasource.master.driver-class-name:}")
+    private String primaryDriverClassName;
+
+    /**
+     * 数据源配置缓存（数据源ID -> 配置），避免每次执行都查询配置表
+     */
+    private final Map<Long, DataSourceConfig> configCache = new ConcurrentHashMap<>();
+
+    /**
+     * 配置变更检查间隔(毫秒)，0表示不检查
+     */
+    @Value("${datasource.config-refresh-interval:30000}")
+    private long configRefreshInterval;
+
+    /**
+     * 配置变更检查线程
+     */
+    private ScheduledExecutorService refreshScheduler;
+
+    @PostConstruct
+    public void init() {
+        // @DataSource("ds:{id}") 切换到按需创建的连接池
+        if (primaryDataSource instanceof DynamicDataSource) {
+            ((DynamicDataSource) primaryDataSource).setDataSourceLookup(this::lookupDataSource);
+        }
+        if (configRefreshInterval <= 0) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datasource-refresh-");
+        threadFactory.setDaemon(true);
+        refreshScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        refreshScheduler.scheduleWithFixedDelay(this::refreshDataSourceConfigs,
+                configRefreshInterval, configRefreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 重新加载已缓存的数据源配置
+     * 连接参数变化的数据源切换到新连接池（旧连接池排空后关闭），删除或禁用的数据源移除连接池
+     */
+    public void refreshDataSourceConfigs() {
+        if (configCache.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, DataSourceConfig> latestConfigs = new HashMap<>();
+            for (DataSourceConfig config : dataSourceConfigMapper.selectBatchIds(configCache.keySet())) {
+                latestConfigs.put(config.getId(), config);
+            }
+            for (Map.Entry<Long, DataSourceConfig> entry : configCache.entrySet()) {
+                DataSourceConfig latest = latestConfigs.get(entry.getKey());
+                if (latest == null || (latest.getStatus() != null && latest.getStatus() == 0)) {
+                    configCache.remove(entry.getKey());
+                    dataSourceFactory.removeDataSource(entry.getValue());
+                } else {
+                    configCache.put(entry.getKey(), latest);
+                    dataSourceFactory.refreshDataSource(latest);
+                }
+            }
+            // 读库归属可能变化，重新加载
+            replicaCache.clear();
+        } catch (Exception e) {
+            log.error("刷新数据源配置失败", e);
+        }
+    }
+
     /**
      * 添加数据源
      *
@@ -36,6 +155,180 @@ public class DataSourceManager {
         return dataSourceFactory.createDataSource(config);
     }
 
+    /**
+     * 根据数据源ID获取数据源
+     * 连接池在首次使用时由数据源工厂创建并缓存；未指定ID时使用主数据源
+     *
+     * @param datasourceId 数据源ID
+     * @return 数据源
+     */
+    public DataSource getDataSource(Long datasourceId) {
+        if (datasourceId == null) {
+            return primaryDataSource;
+        }
+        return dataSourceFactory.createDataSource(getDataSourceConfig(datasourceId));
+    }
+
+    /**
+     * 获取用于读操作的数据源
+     * 数据源声明了读库时按负载均衡策略选择读库，当前会话刚写入过时仍使用主库
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @return 数据源
+     */
+    public DataSource getReadDataSource(Long datasourceId) {
+        return getReadDataSources(datasourceId).get(0);
+    }
+
+    /**
+     * 获取可用于读操作的全部数据源，供对冲读取在多个读库间发送同一查询
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @return 读库列表，首选读库在前；未声明读库或当前会话需读主库时只包含主库
+     */
+    public List<DataSource> getReadDataSources(Long datasourceId) {
+        if (datasourceId == null) {
+            return primaryDataSource instanceof DynamicDataSource
+                    ? ((DynamicDataSource) primaryDataSource).determineReadDataSources()
+                    : Collections.singletonList(primaryDataSource);
+        }
+        DataSource dataSource = getDataSource(datasourceId);
+        List<Long> replicaIds = replicaCache.computeIfAbsent(datasourceId, this::loadReplicaIds);
+        if (replicaIds.isEmpty()) {
+            return Collections.singletonList(dataSource);
+        }
+        List<DataSource> replicas = new ArrayList<>(replicaIds.size());
+        for (Long replicaId : replicaIds) {
+            // 跳过后台健康检查判定为异常的读库
+            if (healthChecker.isHealthy(replicaId)) {
+                replicas.add(getDataSource(replicaId));
+            }
+        }
+        List<DataSource> ordered = readWriteRouter.orderReplicas(groupName(datasourceId), replicas);
+        return ordered.isEmpty() ? Collections.singletonList(dataSource) : ordered;
+    }
+
+    /**
+     * 数据源是否健康（后台健康检查的缓存结果，不做同步检查）
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @return 是否健康
+     */
+    public boolean isHealthy(Long datasourceId) {
+        return healthChecker.isHealthy(datasourceId);
+    }
+
+    /**
+     * 记录当前会话对数据源的写操作（写后短时间内读主库）
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     */
+    public void markWrite(Long datasourceId) {
+        readWriteRouter.markWrite(groupName(datasourceId));
+    }
+
+    /**
+     * 当前会话写入过数据源后是否仍在固定读主库的时间内
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @return 是否固定读主库
+     */
+    public boolean isReadPinned(Long datasourceId) {
+        return readWriteRouter.isPinned(groupName(datasourceId));
+    }
+
+    private List<Long> loadReplicaIds(Long datasourceId) {
+        LambdaQueryWrapper<DataSourceConfig> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(DataSourceConfig::getId)
+                .eq(DataSourceConfig::getReplicaOf, datasourceId)
+                .eq(DataSourceConfig::getStatus, 1);
+        List<Long> replicaIds = new ArrayList<>();
+        for (DataSourceConfig config : dataSourceConfigMapper.selectList(wrapper)) {
+            replicaIds.add(config.getId());
+        }
+        return replicaIds;
+    }
+
+    private static String groupName(Long datasourceId) {
+        return datasourceId == null ? DataSourceContextHolder.DEFAULT_DATASOURCE : GROUP_PREFIX + datasourceId;
+    }
+
+    /**
+     * 按数据源名称 ds:{id} 查找连接池，供动态数据源路由
+     */
+    private DataSource lookupDataSource(String dataSourceName, boolean readOnly) {
+        if (!dataSourceName.startsWith(GROUP_PREFIX)) {
+            return null;
+        }
+        Long datasourceId;
+        try {
+            datasourceId = Long.valueOf(dataSourceName.substring(GROUP_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return readOnly ? getReadDataSource(datasourceId) : getDataSource(datasourceId);
+    }
+
+    /**
+     * 根据数据源ID获取数据源配置
+     *
+     * @param datasourceId 数据源ID
+     * @return 数据源配置
+     */
+    public DataSourceConfig getDataSourceConfig(Long datasourceId) {
+        // 不在computeIfAbsent中查库，避免查询期间阻塞同一桶中其他数据源的读取
+        DataSourceConfig config = configCache.get(datasourceId);
+        if (config == null) {
+            DataSourceConfig loaded = dataSourceConfigMapper.selectById(datasourceId);
+            if (loaded != null) {
+                DataSourceConfig existing = configCache.putIfAbsent(datasourceId, loaded);
+                config = existing != null ? existing : loaded;
+            }
+        }
+        if (config == null) {
+            throw new BusinessException(ErrorCode.DATASOURCE_NOT_FOUND);
+        }
+        if (config.getStatus() != null && config.getStatus() == 0) {
+            throw new BusinessException(ErrorCode.DATASOURCE_CONFIG_ERROR.getCode(), "数据源已禁用：" + config.getDsName());
+        }
+        return config;
+    }
+
+    /**
+     * 获取数据源的数据库类型，用于生成方言SQL
+     *
+     * @param datasourceId 数据源ID，为空表示主数据源
+     * @return 数据库类型，无法识别时返回null
+     */
+    public DatabaseType getDatabaseType(Long datasourceId) {
+        if (datasourceId == null) {
+            return DatabaseType.fromDriverClassName(primaryDriverClassName);
+        }
+        DataSourceConfig config = getDataSourceConfig(datasourceId);
+        DatabaseType type = DatabaseType.fromCode(config.getDsType());
+        return type != null ? type : DatabaseType.fromDriverClassName(config.getDriverClass());
+    }
+
+    /**
+     * 清除数据源配置缓存（配置变更后调用），连接参数变化时切换到新连接池
+     *
+     * @param datasourceId 数据源ID
+     */
+    public void evictDataSourceConfig(Long datasourceId) {
+        DataSourceConfig config = configCache.remove(datasourceId);
+        if (config != null) {
+            // 按最新配置切换连接池，下次获取时创建
+            DataSourceConfig latest = dataSourceConfigMapper.selectById(datasourceId);
+            if (latest == null || (latest.getStatus() != null && latest.getStatus() == 0)) {
+                dataSourceFactory.removeDataSource(config);
+            } else {
+                dataSourceFactory.refreshDataSource(latest);
+            }
+        }
+        // 读库归属可能随配置变化，整体重新加载
+        replicaCache.clear();
+    }
+
     /**
      * 切换数据源
      *
@@ -0,0 +1,272 @@
+package com.apigateway.datasource.manager;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.apigateway.datasource.config.PoolProperties;
+import com.apigateway.datasource.factory.DataSourceFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接池大小自动调优
+ * 定时采样每个Druid连接池的活跃连接数、等待线程数、借用次数和借用等待时间，按利特尔法则
+ * （并发 = 借用速率 × 连接持有时间）估算所需连接数，在配置的上下限内调整 maxActive / minIdle：
+ * 借用等待超过目标时扩容，但连接持有时间明显高于基线（数据库变慢）时不扩容，避免加重数据库负载；
+ * 需求下降时逐步缩容。每次调整都记录日志，配置变更重建连接池后按配置值重新开始
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class PoolAutoTuner {
+
+    /**
+     * 单次缩容最多减少的比例
+     */
+    private static final int SHRINK_DIVISOR = 4;
+
+    /**
+     * 持有时间基线向上跟随的速度
+     */
+    private static final double BASELINE_RISE = 0.05;
+
+    @Autowired
+    private PoolProperties poolProperties;
+
+    @Autowired
+    private DataSourceFactory dataSourceFactory;
+
+    /**
+     * 连接池缓存键 -> 采样状态，只在调度线程访问
+     */
+    private final Map<String, PoolSampler> samplers = new HashMap<>();
+
+    /**
+     * 调整次数
+     */
+    private final LongAdder adjustments = new LongAdder();
+
+    /**
+     * 采样调度线程
+     */
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        PoolProperties.AutoTune autoTune = poolProperties.getAutoTune();
+        if (!autoTune.isEnabled()) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datasource-tuner-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = autoTune.getSampleInterval();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sampleAll();
+            } catch (Exception e) {
+                log.error("连接池自动调优失败", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 采样所有连接池，达到采样数的连接池进行调整
+     */
+    private void sampleAll() {
+        Map<String, DataSource> pools = dataSourceFactory.getDataSourceCache();
+        samplers.keySet().retainAll(pools.keySet());
+        pools.forEach((key, dataSource) -> {
+            if (!(dataSource instanceof DruidDataSource)) {
+                return;
+            }
+            DruidDataSource druid = (DruidDataSource) dataSource;
+            PoolSampler sampler = samplers.get(key);
+            if (sampler == null || sampler.dataSource != druid) {
+                // 新建或切换后的连接池重新采样
+                sampler = new PoolSampler(druid);
+                samplers.put(key, sampler);
+            }
+            sampler.sample();
+            if (sampler.samples >= poolProperties.getAutoTune().getSamplesPerAdjust()) {
+                adjust(key, sampler, pools);
+                sampler.reset();
+            }
+        });
+    }
+
+    /**
+     * 按采样窗口内的观测值调整连接池大小
+     */
+    private void adjust(String key, PoolSampler sampler, Map<String, DataSource> pools) {
+        PoolProperties.AutoTune autoTune = poolProperties.getAutoTune();
+        DruidDataSource dataSource = sampler.dataSource;
+
+        double seconds = (System.nanoTime() - sampler.windowStart) / 1_000_000_000.0;
+        long borrows = dataSource.getConnectCount() - sampler.startConnectCount;
+        long waits = dataSource.getNotEmptyWaitCount() - sampler.startWaitCount;
+        long waitNanos = dataSource.getNotEmptyWaitNanos() - sampler.startWaitNanos;
+
+        double avgActive = (double) sampler.sumActive / sampler.samples;
+        double demand = (double) sampler.sumDemand / sampler.samples;
+        double avgWaitMillis = waits > 0 ? waitNanos / 1_000_000.0 / waits : 0;
+        double rate = seconds > 0 ? borrows / seconds : 0;
+        // 利特尔法则：持有时间 = 平均并发 / 借用速率
+        double holdMillis = rate > 0 ? avgActive / rate * 1000 : 0;
+
+        boolean slowDatabase = sampler.baselineHold > 0
+                && holdMillis > sampler.baselineHold * autoTune.getLatencyTolerance();
+        if (holdMillis > 0) {
+            sampler.baselineHold = sampler.baselineHold <= 0 || holdMillis < sampler.baselineHold
+                    ? holdMillis : sampler.baselineHold + (holdMillis - sampler.baselineHold) * BASELINE_RISE;
+        }
+
+        int maxActive = dataSource.getMaxActive();
+        int minIdle = dataSource.getMinIdle();
+        int target = (int) Math.ceil(demand * autoTune.getHeadroom());
+
+        boolean waiting = avgWaitMillis > autoTune.getTargetWait();
+        if (waiting && slowDatabase) {
+            log.warn("连接池借用等待{}ms，但连接持有时间{}ms高于基线，数据库变慢，不扩容：{}",
+                    round(avgWaitMillis), round(holdMillis), key);
+        }
+        int newMaxActive = resize(maxActive, target, waiting, slowDatabase, autoTune);
+        if (newMaxActive > maxActive) {
+            // 所有连接池的连接数之和不超过上限
+            int total = 0;
+            for (DataSource pool : pools.values()) {
+                if (pool instanceof DruidDataSource) {
+                    total += ((DruidDataSource) pool).getMaxActive();
+                }
+            }
+            newMaxActive = Math.max(maxActive,
+                    Math.min(newMaxActive, maxActive + poolProperties.getMaxConnections() - total));
+        }
+
+        int newMinIdle = Math.max(autoTune.getMinIdle(), (int) Math.ceil(avgActive));
+        newMinIdle = Math.min(newMinIdle, newMaxActive);
+
+        if (newMaxActive == maxActive && newMinIdle == minIdle) {
+            return;
+        }
+        // 先放宽再收紧，保证任意时刻 minIdle <= maxActive
+        if (newMaxActive >= maxActive) {
+            dataSource.setMaxActive(newMaxActive);
+            dataSource.setMinIdle(newMinIdle);
+        } else {
+            dataSource.setMinIdle(newMinIdle);
+            dataSource.setMaxActive(newMaxActive);
+        }
+        adjustments.increment();
+        log.info("连接池自动调优：{}，maxActive {} -> {}，minIdle {} -> {}（平均活跃{}，并发需求{}，借用{}/s，"
+                        + "持有{}ms，平均等待{}ms）", key, maxActive, newMaxActive, minIdle, newMinIdle,
+                round(avgActive), round(demand), round(rate), round(holdMillis), round(avgWaitMillis));
+    }
+
+    /**
+     * 计算新的 maxActive（不含所有连接池的连接数上限）
+     * 借用等待超过目标时向目标连接数扩容，单次最多翻倍；数据库变慢时不扩容；
+     * 需求低于当前大小时逐步缩容，单次最多减少 1/SHRINK_DIVISOR
+     *
+     * @param maxActive 当前 maxActive
+     * @param target 目标连接数（并发需求 × 余量）
+     * @param waiting 平均借用等待是否超过目标
+     * @param slowDatabase 连接持有时间是否高于基线
+     * @param autoTune 调优配置
+     * @return 限制在配置上下限内的 maxActive
+     */
+    static int resize(int maxActive, int target, boolean waiting, boolean slowDatabase,
+                      PoolProperties.AutoTune autoTune) {
+        int newMaxActive = maxActive;
+        if (waiting) {
+            if (!slowDatabase) {
+                newMaxActive = Math.min(Math.max(target, maxActive + 1), maxActive * 2);
+            }
+        } else if (target < maxActive) {
+            newMaxActive = Math.max(target, maxActive - Math.max(1, maxActive / SHRINK_DIVISOR));
+        }
+        return Math.max(autoTune.getMinActive(), Math.min(autoTune.getMaxActive(), newMaxActive));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * 累计调整次数
+     */
+    public long getAdjustmentCount() {
+        return adjustments.sum();
+    }
+
+    /**
+     * 单个连接池的采样窗口
+     */
+    private static final class PoolSampler {
+
+        private final DruidDataSource dataSource;
+
+        /**
+         * 连接持有时间基线(毫秒)，跟随最小值，缓慢向上适应负载变化
+         */
+        private double baselineHold;
+
+        private long windowStart;
+
+        private long startConnectCount;
+
+        private long startWaitCount;
+
+        private long startWaitNanos;
+
+        private int samples;
+
+        private long sumActive;
+
+        /**
+         * 活跃连接数 + 等待连接的线程数
+         */
+        private long sumDemand;
+
+        PoolSampler(DruidDataSource dataSource) {
+            this.dataSource = dataSource;
+            reset();
+        }
+
+        void sample() {
+            int active = dataSource.getActiveCount();
+            sumActive += active;
+            sumDemand += active + dataSource.getNotEmptyWaitThreadCount();
+            samples++;
+        }
+
+        void reset() {
+            windowStart = System.nanoTime();
+            startConnectCount = dataSource.getConnectCount();
+            startWaitCount = dataSource.getNotEmptyWaitCount();
+            startWaitNanos = dataSource.getNotEmptyWaitNanos();
+            samples = 0;
+            sumActive = 0;
+            sumDemand = 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.apigateway.datasource.mapper;
+
+import com.apigateway.datasource.entity.DataSourceConfig;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 数据源配置Mapper
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Mapper
+public interface DataSourceConfigMapper extends BaseMapper<DataSourceConfig> {
+
+    /**
+     * 批量写回健康检查结果（单条语句）
+     * 保持 update_time 不变，健康状态变化不视为配置修改
+     *
+     * @param results 数据源ID -> 健康状态(0-异常,1-正常)
+     * @param checkTime 检查时间
+     * @return 更新行数
+     */
+    @Update("<script>"
+            + "UPDATE datasource_config SET health_status = CASE id "
+            + "<foreach collection='results' index='id' item='status'>WHEN #{id} THEN #{status} </foreach>"
+            + "END, last_check_time = #{checkTime}, update_time = update_time WHERE id IN "
+            + "<foreach collection='results' index='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + "</script>")
+    int updateHealthStatus(@Param("results") Map<Long, Integer> results, @Param("checkTime") LocalDateTime checkTime);
+}
@@ -0,0 +1,97 @@
+package com.apigateway.datasource.stat;
+
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.filter.FilterEventAdapter;
+import com.alibaba.druid.proxy.jdbc.PreparedStatementProxy;
+import com.alibaba.druid.proxy.jdbc.ResultSetProxy;
+import com.alibaba.druid.proxy.jdbc.StatementProxy;
+import com.apigateway.datasource.core.DataSourceContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * SQL执行统计过滤器
+ * 由数据源工厂加到每个连接池上，在JDBC层记录执行耗时、行数和错误，
+ * 按归一化SQL和当前执行的API（{@link DataSourceContextHolder#getApiId()}）统计
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Component
+public class SqlStatFilter extends FilterEventAdapter {
+
+    @Autowired
+    private SqlStatRegistry sqlStatRegistry;
+
+    @Override
+    protected void statementExecuteBefore(StatementProxy statement, String sql) {
+        statement.setLastExecuteStartNano();
+    }
+
+    @Override
+    protected void statementExecuteAfter(StatementProxy statement, String sql, boolean result) {
+        record(statement, sql, 0, false);
+    }
+
+    @Override
+    protected void statementExecuteQueryBefore(StatementProxy statement, String sql) {
+        statement.setLastExecuteStartNano();
+    }
+
+    @Override
+    protected void statementExecuteQueryAfter(StatementProxy statement, String sql, ResultSetProxy resultSet) {
+        record(statement, sql, 0, false);
+    }
+
+    @Override
+    protected void statementExecuteUpdateBefore(StatementProxy statement, String sql) {
+        statement.setLastExecuteStartNano();
+    }
+
+    @Override
+    protected void statementExecuteUpdateAfter(StatementProxy statement, String sql, int updateCount) {
+        record(statement, sql, updateCount, false);
+    }
+
+    @Override
+    protected void statementExecuteBatchBefore(StatementProxy statement) {
+        statement.setLastExecuteStartNano();
+    }
+
+    @Override
+    protected void statementExecuteBatchAfter(StatementProxy statement, int[] result) {
+        long updateCount = 0;
+        if (result != null) {
+            for (int count : result) {
+                if (count > 0) {
+                    updateCount += count;
+                }
+            }
+        }
+        record(statement, sql(statement), updateCount, false);
+    }
+
+    @Override
+    protected void statement_executeErrorAfter(StatementProxy statement, String sql, Throwable error) {
+        record(statement, sql != null ? sql : sql(statement), 0, true);
+    }
+
+    @Override
+    public void resultSet_close(FilterChain chain, ResultSetProxy resultSet) throws SQLException {
+        sqlStatRegistry.recordFetch(resultSet.getSql(), DataSourceContextHolder.getApiId(),
+                resultSet.getFetchRowCount());
+        super.resultSet_close(chain, resultSet);
+    }
+
+    private void record(StatementProxy statement, String sql, long updateCount, boolean error) {
+        long nanos = System.nanoTime() - statement.getLastExecuteStartNano();
+        sqlStatRegistry.recordExecute(sql, DataSourceContextHolder.getApiId(), nanos, updateCount, error);
+    }
+
+    private static String sql(StatementProxy statement) {
+        return statement instanceof PreparedStatementProxy
+                ? ((PreparedStatementProxy) statement).getSql() : statement.getLastExecuteSql();
+    }
+}
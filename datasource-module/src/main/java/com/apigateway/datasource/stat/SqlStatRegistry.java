@@ -0,0 +1,283 @@
+package com.apigateway.datasource.stat;
+
+import com.apigateway.datasource.config.SqlStatProperties;
+import com.apigateway.datasource.entity.SqlStatInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL执行统计
+ * 按归一化SQL和API ID分别累计执行次数、耗时、读取/更新行数和错误数，统计项数量有上限，
+ * 超出后新SQL计入“其他SQL”，新API不再单独统计；记录只做原子累加
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+@Component
+public class SqlStatRegistry {
+
+    /**
+     * 超出统计上限的SQL
+     */
+    public static final String OTHER_SQL = "(其他SQL)";
+
+    @Autowired
+    private SqlStatProperties sqlStatProperties;
+
+    /**
+     * 归一化SQL -> 统计
+     */
+    private final Map<String, SqlStat> sqlStats = new ConcurrentHashMap<>();
+
+    /**
+     * API ID -> 统计
+     */
+    private final Map<Long, SqlStat> apiStats = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次执行
+     *
+     * @param sql SQL
+     * @param apiId 当前执行的API ID，可为空
+     * @param nanos 执行耗时(纳秒)
+     * @param updateRows 更新行数
+     * @param error 是否失败
+     */
+    public void recordExecute(String sql, Long apiId, long nanos, long updateRows, boolean error) {
+        record(sqlStat(sql), nanos, updateRows, error);
+        SqlStat apiStat = apiStat(apiId);
+        if (apiStat != null) {
+            record(apiStat, nanos, updateRows, error);
+        }
+    }
+
+    /**
+     * 记录结果集读取行数
+     *
+     * @param sql SQL
+     * @param apiId 当前执行的API ID，可为空
+     * @param rows 读取行数
+     */
+    public void recordFetch(String sql, Long apiId, long rows) {
+        if (rows <= 0) {
+            return;
+        }
+        sqlStat(sql).fetchRows.add(rows);
+        SqlStat apiStat = apiStat(apiId);
+        if (apiStat != null) {
+            apiStat.fetchRows.add(rows);
+        }
+    }
+
+    private static void record(SqlStat stat, long nanos, long updateRows, boolean error) {
+        stat.executeCount.increment();
+        stat.totalNanos.add(nanos);
+        stat.maxNanos.accumulate(nanos);
+        if (updateRows > 0) {
+            stat.updateRows.add(updateRows);
+        }
+        if (error) {
+            stat.errorCount.increment();
+        }
+    }
+
+    private SqlStat sqlStat(String sql) {
+        String key = normalize(sql, sqlStatProperties.getMaxSqlLength());
+        SqlStat stat = sqlStats.get(key);
+        if (stat != null) {
+            return stat;
+        }
+        if (sqlStats.size() >= sqlStatProperties.getMaxSqlEntries()) {
+            key = OTHER_SQL;
+        }
+        return sqlStats.computeIfAbsent(key, k -> new SqlStat());
+    }
+
+    private SqlStat apiStat(Long apiId) {
+        if (apiId == null) {
+            return null;
+        }
+        SqlStat stat = apiStats.get(apiId);
+        if (stat != null || apiStats.size() >= sqlStatProperties.getMaxApiEntries()) {
+            return stat;
+        }
+        return apiStats.computeIfAbsent(apiId, k -> new SqlStat());
+    }
+
+    /**
+     * 按指定指标排序的前N条SQL统计
+     *
+     * @param orderBy 排序指标：totalTime / maxTime / avgTime / count / errors / rows
+     * @param limit 返回条数
+     * @return SQL统计
+     */
+    public List<SqlStatInfo> topSql(String orderBy, int limit) {
+        List<SqlStatInfo> infos = new ArrayList<>(sqlStats.size());
+        sqlStats.forEach((sql, stat) -> {
+            SqlStatInfo info = stat.toInfo();
+            info.setSql(sql);
+            infos.add(info);
+        });
+        return top(infos, orderBy, limit);
+    }
+
+    /**
+     * 按指定指标排序的前N个API的SQL统计
+     *
+     * @param orderBy 排序指标：totalTime / maxTime / avgTime / count / errors / rows
+     * @param limit 返回条数
+     * @return API的SQL统计
+     */
+    public List<SqlStatInfo> topApis(String orderBy, int limit) {
+        List<SqlStatInfo> infos = new ArrayList<>(apiStats.size());
+        apiStats.forEach((apiId, stat) -> {
+            SqlStatInfo info = stat.toInfo();
+            info.setApiId(apiId);
+            infos.add(info);
+        });
+        return top(infos, orderBy, limit);
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        sqlStats.clear();
+        apiStats.clear();
+    }
+
+    private static List<SqlStatInfo> top(List<SqlStatInfo> infos, String orderBy, int limit) {
+        infos.sort(comparator(orderBy).reversed());
+        return infos.size() > limit ? new ArrayList<>(infos.subList(0, Math.max(0, limit))) : infos;
+    }
+
+    private static Comparator<SqlStatInfo> comparator(String orderBy) {
+        if (orderBy == null) {
+            return Comparator.comparing(SqlStatInfo::getTotalMillis);
+        }
+        switch (orderBy) {
+            case "maxTime":
+                return Comparator.comparing(SqlStatInfo::getMaxMillis);
+            case "avgTime":
+                return Comparator.comparing(SqlStatInfo::getAvgMillis);
+            case "count":
+                return Comparator.comparing(SqlStatInfo::getExecuteCount);
+            case "errors":
+                return Comparator.comparing(SqlStatInfo::getErrorCount);
+            case "rows":
+                return Comparator.comparing(SqlStatInfo::getFetchRows);
+            default:
+                return Comparator.comparing(SqlStatInfo::getTotalMillis);
+        }
+    }
+
+    /**
+     * 归一化SQL：合并空白，字符串和数字常量替换为 ?，超长截断
+     *
+     * @param sql SQL
+     * @param maxLength 最大长度
+     * @return 归一化SQL
+     */
+    static String normalize(String sql, int maxLength) {
+        if (sql == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(Math.min(sql.length(), maxLength));
+        int length = sql.length();
+        int i = 0;
+        while (i < length && normalized.length() < maxLength) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (normalized.length() > 0 && i < length) {
+                    normalized.append(' ');
+                }
+                continue;
+            }
+            if (c == '\'') {
+                // 字符串常量，'' 为转义的单引号
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                normalized.append('?');
+                i++;
+                continue;
+            }
+            if (Character.isDigit(c) && !isIdentifierPart(normalized)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                normalized.append('?');
+                continue;
+            }
+            normalized.append(c);
+            i++;
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * 前一个字符是否为标识符的一部分（如 t1 中的 1 不是常量）
+     */
+    private static boolean isIdentifierPart(StringBuilder normalized) {
+        if (normalized.length() == 0) {
+            return false;
+        }
+        char last = normalized.charAt(normalized.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * 单项统计
+     */
+    private static final class SqlStat {
+
+        private final LongAdder executeCount = new LongAdder();
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private final LongAdder fetchRows = new LongAdder();
+
+        private final LongAdder updateRows = new LongAdder();
+
+        SqlStatInfo toInfo() {
+            long count = executeCount.sum();
+            long total = totalNanos.sum();
+            SqlStatInfo info = new SqlStatInfo();
+            info.setExecuteCount(count);
+            info.setErrorCount(errorCount.sum());
+            info.setTotalMillis(millis(total));
+            info.setAvgMillis(count > 0 ? millis(total / count) : 0);
+            info.setMaxMillis(millis(maxNanos.get()));
+            info.setFetchRows(fetchRows.sum());
+            info.setUpdateRows(updateRows.sum());
+            return info;
+        }
+    }
+}
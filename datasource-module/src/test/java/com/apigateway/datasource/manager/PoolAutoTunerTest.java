@@ -0,0 +1,52 @@
+package com.apigateway.datasource.manager;
+
+import com.apigateway.datasource.config.PoolProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 连接池大小自动调优测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class PoolAutoTunerTest {
+
+    private final PoolProperties.AutoTune autoTune = autoTune();
+
+    @Test
+    void growsTowardsDemandWhenBorrowersWait() {
+        assertEquals(14, PoolAutoTuner.resize(10, 14, true, false, autoTune));
+        // 单次最多翻倍
+        assertEquals(20, PoolAutoTuner.resize(10, 60, true, false, autoTune));
+        // 目标不高于当前大小时至少增加1
+        assertEquals(11, PoolAutoTuner.resize(10, 8, true, false, autoTune));
+    }
+
+    @Test
+    void keepsSizeWhenDatabaseIsSlow() {
+        assertEquals(10, PoolAutoTuner.resize(10, 30, true, true, autoTune));
+    }
+
+    @Test
+    void shrinksGraduallyWhenDemandDrops() {
+        assertEquals(15, PoolAutoTuner.resize(20, 2, false, false, autoTune));
+        assertEquals(18, PoolAutoTuner.resize(20, 18, false, false, autoTune));
+        assertEquals(20, PoolAutoTuner.resize(20, 24, false, false, autoTune));
+    }
+
+    @Test
+    void staysWithinConfiguredBounds() {
+        assertEquals(40, PoolAutoTuner.resize(30, 80, true, false, autoTune));
+        assertEquals(4, PoolAutoTuner.resize(4, 1, false, false, autoTune));
+        assertEquals(4, PoolAutoTuner.resize(2, 1, false, false, autoTune));
+    }
+
+    private static PoolProperties.AutoTune autoTune() {
+        PoolProperties.AutoTune autoTune = new PoolProperties.AutoTune();
+        autoTune.setMinActive(4);
+        autoTune.setMaxActive(40);
+        return autoTune;
+    }
+}
@@ -0,0 +1,90 @@
+package com.apigateway.datasource.stat;
+
+import com.apigateway.datasource.config.SqlStatProperties;
+import com.apigateway.datasource.entity.SqlStatInfo;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * SQL执行统计测试
+ *
+ * @author apigateway
+ * @since 1.0.0
+ */
+class SqlStatRegistryTest {
+
+    @Test
+    void replacesLiteralsAndCollapsesWhitespace() {
+        assertEquals("SELECT * FROM t1 WHERE id = ? AND name = ? AND price > ?",
+                SqlStatRegistry.normalize("  SELECT *\n  FROM t1\tWHERE id = 42 AND name = 'it''s' AND price > 9.5 ",
+                        2000));
+        assertEquals("SELECT col_2, a$3 FROM t WHERE x IN (?, ?)",
+                SqlStatRegistry.normalize("SELECT col_2, a$3 FROM t WHERE x IN (1, 2)", 2000));
+        assertEquals("SELECT * FROM t WHERE a = ?", SqlStatRegistry.normalize("SELECT * FROM t WHERE a = ?", 2000));
+    }
+
+    @Test
+    void truncatesLongSql() {
+        assertEquals("SELECT", SqlStatRegistry.normalize("SELECT * FROM t", 6));
+        assertEquals("", SqlStatRegistry.normalize(null, 10));
+    }
+
+    @Test
+    void groupsExecutionsByNormalizedSql() throws Exception {
+        SqlStatRegistry registry = registry(10, 10);
+
+        registry.recordExecute("SELECT * FROM t WHERE id = 1", 1L, 2_000_000, 0, false);
+        registry.recordExecute("SELECT * FROM t WHERE id = 2", 1L, 4_000_000, 0, true);
+        registry.recordFetch("SELECT * FROM t WHERE id = 2", 1L, 3);
+
+        List<SqlStatInfo> top = registry.topSql("count", 10);
+        assertEquals(1, top.size());
+        SqlStatInfo info = top.get(0);
+        assertEquals("SELECT * FROM t WHERE id = ?", info.getSql());
+        assertEquals(2, info.getExecuteCount());
+        assertEquals(1, info.getErrorCount());
+        assertEquals(6.0, info.getTotalMillis());
+        assertEquals(3.0, info.getAvgMillis());
+        assertEquals(4.0, info.getMaxMillis());
+        assertEquals(3, info.getFetchRows());
+        assertEquals(Long.valueOf(1L), registry.topApis("count", 10).get(0).getApiId());
+    }
+
+    @Test
+    void capsEntriesAndSortsByMetric() throws Exception {
+        SqlStatRegistry registry = registry(2, 1);
+
+        registry.recordExecute("SELECT a FROM t", 1L, 1_000_000, 0, false);
+        registry.recordExecute("SELECT b FROM t", 2L, 5_000_000, 0, false);
+        registry.recordExecute("SELECT c FROM t", 3L, 3_000_000, 0, false);
+        registry.recordExecute("SELECT d FROM t", null, 3_000_000, 0, false);
+
+        List<SqlStatInfo> top = registry.topSql("totalTime", 10);
+        assertEquals(3, top.size());
+        assertEquals(SqlStatRegistry.OTHER_SQL, top.get(0).getSql());
+        assertEquals(2, top.get(0).getExecuteCount());
+        assertEquals("SELECT b FROM t", top.get(1).getSql());
+        assertEquals("SELECT b FROM t", registry.topSql("maxTime", 1).get(0).getSql());
+
+        List<SqlStatInfo> apis = registry.topApis("count", 10);
+        assertEquals(1, apis.size());
+        assertEquals(Long.valueOf(1L), apis.get(0).getApiId());
+        assertNull(apis.get(0).getSql());
+    }
+
+    private static SqlStatRegistry registry(int maxSqlEntries, int maxApiEntries) throws Exception {
+        SqlStatProperties properties = new SqlStatProperties();
+        properties.setMaxSqlEntries(maxSqlEntries);
+        properties.setMaxApiEntries(maxApiEntries);
+        SqlStatRegistry registry = new SqlStatRegistry();
+        Field field = SqlStatRegistry.class.getDeclaredField("sqlStatProperties");
+        field.setAccessible(true);
+        field.set(registry, properties);
+        return registry;
+    }
+}
@@ -63,6 +63,12 @@ CREATE TABLE "API_INFO" (
     "DESCRIPTION" VARCHAR(500),
     "REQUEST_EXAMPLE" CLOB,
     "RESPONSE_EXAMPLE" CLOB,
+    "CACHE_ENABLED" INT DEFAULT 0,
+    "CACHE_TTL" INT DEFAULT 60,
+    "QUERY_TIMEOUT" INT,
+    "MAX_ROWS" INT,
+    "KEYSET_COLUMNS" VARCHAR(200),
+    "HEDGE_ENABLED" INT DEFAULT 0,
     "CREATE_TIME" TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     "UPDATE_TIME" TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     "CREATE_USER_ID" BIGINT,
@@ -81,6 +87,12 @@ COMMENT ON COLUMN "API_INFO"."NEED_AUTH" IS '是否需要认证:0-否,1-是';
 COMMENT ON COLUMN "API_INFO"."ENCRYPT_TYPE" IS '加密类型:SM4/AES/NONE';
 COMMENT ON COLUMN "API_INFO"."STATUS" IS '状态:0-草稿,1-发布,2-下线';
 COMMENT ON COLUMN "API_INFO"."VERSION" IS '版本号';
+COMMENT ON COLUMN "API_INFO"."CACHE_ENABLED" IS '是否缓存查询结果:0-否,1-是';
+COMMENT ON COLUMN "API_INFO"."CACHE_TTL" IS '结果缓存时间(秒)';
+COMMENT ON COLUMN "API_INFO"."QUERY_TIMEOUT" IS '查询超时时间(秒),为空使用全局默认值';
+COMMENT ON COLUMN "API_INFO"."MAX_ROWS" IS '最大返回行数,为空使用全局默认值';
+COMMENT ON COLUMN "API_INFO"."KEYSET_COLUMNS" IS '游标排序键,如 create_time DESC, id DESC';
+COMMENT ON COLUMN "API_INFO"."HEDGE_ENABLED" IS '是否对冲读取:0-否,1-是';
 
 -- =============================================
 -- 3. 数据源配置表
@@ -98,6 +110,7 @@ CREATE TABLE "DATASOURCE_CONFIG" (
     "MIN_IDLE" INT DEFAULT 5,
     "MAX_WAIT" INT DEFAULT 60000,
     "TEST_QUERY" VARCHAR(100),
+    "REPLICA_OF" BIGINT,
     "STATUS" INT DEFAULT 1,
     "HEALTH_STATUS" INT DEFAULT 0,
     "LAST_CHECK_TIME" TIMESTAMP,
@@ -113,6 +126,7 @@ COMMENT ON COLUMN "DATASOURCE_CONFIG"."DS_TYPE" IS '数据库类型:DM/MYSQL/ORA
 COMMENT ON COLUMN "DATASOURCE_CONFIG"."JDBC_URL" IS 'JDBC连接URL';
 COMMENT ON COLUMN "DATASOURCE_CONFIG"."STATUS" IS '状态:0-禁用,1-启用';
 COMMENT ON COLUMN "DATASOURCE_CONFIG"."HEALTH_STATUS" IS '健康状态:0-异常,1-正常';
+COMMENT ON COLUMN "DATASOURCE_CONFIG"."REPLICA_OF" IS '所属主数据源ID(读库)';
 
 -- =============================================
 -- 4. 系统日志表
@@ -144,12 +158,15 @@ COMMENT ON COLUMN "SYS_LOG"."STATUS" IS '状态:0-失败,1-成功';
 -- =============================================
 CREATE UNIQUE INDEX "UN_USERNAME" ON "SYS_USER"("USERNAME");
 CREATE INDEX "IDX_USER_STATUS" ON "SYS_USER"("STATUS");
+CREATE INDEX "IDX_USER_CREATE_TIME" ON "SYS_USER"("CREATE_TIME", "ID");
 
 CREATE INDEX "IDX_API_PATH" ON "API_INFO"("API_PATH");
 CREATE INDEX "IDX_API_STATUS" ON "API_INFO"("STATUS");
+CREATE INDEX "IDX_API_CREATE_TIME" ON "API_INFO"("CREATE_TIME", "ID");
 
 CREATE INDEX "IDX_DS_NAME" ON "DATASOURCE_CONFIG"("DS_NAME");
 CREATE INDEX "IDX_DS_STATUS" ON "DATASOURCE_CONFIG"("STATUS");
+CREATE INDEX "IDX_DS_REPLICA_OF" ON "DATASOURCE_CONFIG"("REPLICA_OF");
 
 CREATE INDEX "IDX_LOG_TYPE" ON "SYS_LOG"("LOG_TYPE");
 CREATE INDEX "IDX_LOG_USER_ID" ON "SYS_LOG"("USER_ID");
@@ -32,7 +32,8 @@ CREATE TABLE `sys_user` (
     `deleted` INT DEFAULT 0 COMMENT '删除标识:0-未删除,1-已删除',
     PRIMARY KEY (`id`),
     UNIQUE KEY `uk_username` (`username`),
-    KEY `idx_user_status` (`status`)
+    KEY `idx_user_status` (`status`),
+    KEY `idx_user_create_time` (`create_time`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='系统用户表';
 
 -- =============================================
@@ -53,6 +54,12 @@ CREATE TABLE `api_info` (
     `description` VARCHAR(500) COMMENT 'API描述',
     `request_example` TEXT COMMENT '请求参数示例',
     `response_example` TEXT COMMENT '响应示例',
+    `cache_enabled` INT DEFAULT 0 COMMENT '是否缓存查询结果:0-否,1-是',
+    `cache_ttl` INT DEFAULT 60 COMMENT '结果缓存时间(秒)',
+    `query_timeout` INT DEFAULT NULL COMMENT '查询超时时间(秒),为空使用全局默认值',
+    `max_rows` INT DEFAULT NULL COMMENT '最大返回行数,为空使用全局默认值',
+    `keyset_columns` VARCHAR(200) COMMENT '游标排序键,如 create_time DESC, id DESC',
+    `hedge_enabled` INT DEFAULT 0 COMMENT '是否对冲读取:0-否,1-是',
     `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
     `create_user_id` BIGINT COMMENT '创建人ID',
@@ -60,7 +67,8 @@ CREATE TABLE `api_info` (
     `deleted` INT DEFAULT 0 COMMENT '删除标识:0-未删除,1-已删除',
     PRIMARY KEY (`id`),
     KEY `idx_api_path` (`api_path`),
-    KEY `idx_api_status` (`status`)
+    KEY `idx_api_status` (`status`),
+    KEY `idx_api_create_time` (`create_time`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='API信息表';
 
 -- =============================================
@@ -80,6 +88,7 @@ CREATE TABLE `datasource_config` (
     `min_idle` INT DEFAULT 5 COMMENT '最小空闲连接数',
     `max_wait` INT DEFAULT 60000 COMMENT '最大等待时间(ms)',
     `test_query` VARCHAR(100) COMMENT '测试查询SQL',
+    `replica_of` BIGINT COMMENT '所属主数据源ID(读库)',
     `status` INT DEFAULT 1 COMMENT '状态:0-禁用,1-启用',
     `health_status` INT DEFAULT 0 COMMENT '健康状态:0-异常,1-正常',
     `last_check_time` DATETIME COMMENT '最后检查时间',
@@ -88,7 +97,8 @@ CREATE TABLE `datasource_config` (
     `deleted` INT DEFAULT 0 COMMENT '删除标识:0-未删除,1-已删除',
     PRIMARY KEY (`id`),
     KEY `idx_ds_name` (`ds_name`),
-    KEY `idx_ds_status` (`status`)
+    KEY `idx_ds_status` (`status`),
+    KEY `idx_ds_replica_of` (`replica_of`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='数据源配置表';
 
 -- =============================================
@@ -1,16 +1,28 @@
 package com.apigateway.monitor.controller;
 
 import com.apigateway.common.core.Result;
+import com.apigateway.datasource.entity.SqlStatInfo;
+import com.apigateway.datasource.stat.SqlStatRegistry;
+import com.apigateway.generator.entity.ApiExecuteStats;
+import com.apigateway.generator.entity.CircuitBreakerStatus;
+import com.apigateway.generator.entity.ConcurrencyLimitStatus;
+import com.apigateway.generator.entity.ConnectionLeak;
+import com.apigateway.generator.entity.ConnectionUsageStats;
+import com.apigateway.generator.service.IApiGeneratorService;
 import com.apigateway.monitor.entity.SystemMonitor;
 import com.apigateway.monitor.service.SystemMonitorService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 系统监控控制器
  *
@@ -26,6 +38,12 @@ public class MonitorController {
     @Autowired
     private SystemMonitorService systemMonitorService;
 
+    @Autowired
+    private IApiGeneratorService apiGeneratorService;
+
+    @Autowired
+    private SqlStatRegistry sqlStatRegistry;
+
     /**
      * 获取系统监控信息
      */
@@ -35,4 +53,85 @@ public class MonitorController {
         SystemMonitor monitor = systemMonitorService.getSystemMonitor();
         return Result.success(monitor);
     }
+
+    /**
+     * 获取API执行统计
+     */
+    @GetMapping("/api-execute")
+    @ApiOperation("获取API执行统计")
+    public Result<ApiExecuteStats> getApiExecuteStats() {
+        return Result.success(apiGeneratorService.getExecuteStats());
+    }
+
+    /**
+     * 获取数据源和API熔断器状态
+     */
+    @GetMapping("/circuit-breakers")
+    @ApiOperation("获取熔断器状态")
+    public Result<List<CircuitBreakerStatus>> getCircuitBreakers() {
+        return Result.success(apiGeneratorService.getCircuitBreakers());
+    }
+
+    /**
+     * 获取数据源自适应并发限制状态
+     */
+    @GetMapping("/concurrency-limits")
+    @ApiOperation("获取数据源并发限制状态")
+    public Result<List<ConcurrencyLimitStatus>> getConcurrencyLimits() {
+        return Result.success(apiGeneratorService.getConcurrencyLimits());
+    }
+
+    /**
+     * 获取各API的连接使用统计（当前持有数多的在前），用于定位占用连接的API
+     */
+    @GetMapping("/connections")
+    @ApiOperation("获取API连接使用统计")
+    public Result<List<ConnectionUsageStats>> getConnectionUsage() {
+        return Result.success(apiGeneratorService.getConnectionUsage());
+    }
+
+    /**
+     * 获取最近的连接持有超时记录（含借出线程堆栈）
+     */
+    @GetMapping("/connection-leaks")
+    @ApiOperation("获取疑似连接泄漏记录")
+    public Result<List<ConnectionLeak>> getConnectionLeaks() {
+        return Result.success(apiGeneratorService.getConnectionLeaks());
+    }
+
+    /**
+     * 获取前N条SQL执行统计（按归一化SQL）
+     *
+     * @param orderBy 排序指标：totalTime / maxTime / avgTime / count / errors / rows
+     * @param limit 返回条数
+     */
+    @GetMapping("/sql-stats")
+    @ApiOperation("获取SQL执行统计排行")
+    public Result<List<SqlStatInfo>> getSqlStats(@RequestParam(defaultValue = "totalTime") String orderBy,
+                                                 @RequestParam(defaultValue = "20") Integer limit) {
+        return Result.success(sqlStatRegistry.topSql(orderBy, limit));
+    }
+
+    /**
+     * 获取前N个API的SQL执行统计
+     *
+     * @param orderBy 排序指标：totalTime / maxTime / avgTime / count / errors / rows
+     * @param limit 返回条数
+     */
+    @GetMapping("/sql-stats/apis")
+    @ApiOperation("获取API的SQL执行统计排行")
+    public Result<List<SqlStatInfo>> getApiSqlStats(@RequestParam(defaultValue = "totalTime") String orderBy,
+                                                    @RequestParam(defaultValue = "20") Integer limit) {
+        return Result.success(sqlStatRegistry.topApis(orderBy, limit));
+    }
+
+    /**
+     * 清空SQL执行统计
+     */
+    @DeleteMapping("/sql-stats")
+    @ApiOperation("清空SQL执行统计")
+    public Result<Void> resetSqlStats() {
+        sqlStatRegistry.reset();
+        return Result.success();
+    }
 }
@@ -1,5 +1,6 @@
 package com.apigateway.user.controller;
 
+import com.apigateway.common.core.CursorPage;
 import com.apigateway.common.core.PageResult;
 import com.apigateway.common.core.Result;
 import com.apigateway.user.entity.User;
@@ -60,6 +61,18 @@ public class UserController {
         return Result.success(result);
     }
 
+    /**
+     * 游标分页查询用户列表（深分页）
+     */
+    @GetMapping("/scroll")
+    @ApiOperation("游标分页查询用户列表")
+    public Result<CursorPage<User>> scrollUsers(
+            @ApiParam("游标，首页不传") @RequestParam(required = false) String cursor,
+            @ApiParam("每页大小") @RequestParam(defaultValue = "10") Integer pageSize,
+            @ApiParam("状态") @RequestParam(required = false) Integer status) {
+        return Result.success(userService.scrollUsers(cursor, pageSize, status));
+    }
+
     /**
      * 创建用户
      */
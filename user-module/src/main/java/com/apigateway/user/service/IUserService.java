@@ -1,5 +1,6 @@
 package com.apigateway.user.service;
 
+import com.apigateway.common.core.CursorPage;
 import com.apigateway.user.entity.User;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -32,6 +33,16 @@ public interface IUserService extends IService<User> {
      */
     IPage<User> pageUsers(Integer pageNum, Integer pageSize, Integer status);
 
+    /**
+     * 游标分页查询用户列表（按创建时间、ID倒序）
+     *
+     * @param cursor 上一页返回的游标，首页为空
+     * @param pageSize 每页大小
+     * @param status 状态
+     * @return 用户列表
+     */
+    CursorPage<User> scrollUsers(String cursor, Integer pageSize, Integer status);
+
     /**
      * 创建用户
      *
@@ -1,6 +1,8 @@
 package com.apigateway.user.service.impl;
 
+import com.apigateway.common.core.CursorPage;
 import com.apigateway.common.exception.BusinessException;
+import com.apigateway.common.util.CursorUtils;
 import com.apigateway.common.util.PasswordUtils;
 import com.apigateway.user.entity.User;
 import com.apigateway.user.mapper.UserMapper;
@@ -14,6 +16,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
 /**
  * 用户服务实现类
  *
@@ -48,6 +53,31 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         return this.page(page, wrapper);
     }
 
+    @Override
+    public CursorPage<User> scrollUsers(String cursor, Integer pageSize, Integer status) {
+        int size = CursorPage.limitPageSize(pageSize);
+        // 多查一条判断是否还有下一页，不执行count
+        Page<User> page = new Page<>(1, size + 1, false);
+        LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
+
+        if (status != null) {
+            wrapper.eq(User::getStatus, status);
+        }
+
+        // 从上一页最后一条记录之后继续：(create_time, id) < (?, ?)
+        if (StringUtils.hasText(cursor)) {
+            Object[] key = CursorUtils.decode(cursor, Timestamp.class, Long.class);
+            LocalDateTime createTime = ((Timestamp) key[0]).toLocalDateTime();
+            Long id = (Long) key[1];
+            wrapper.and(w -> w.lt(User::getCreateTime, createTime)
+                    .or(o -> o.eq(User::getCreateTime, createTime).lt(User::getId, id)));
+        }
+
+        wrapper.orderByDesc(User::getCreateTime).orderByDesc(User::getId);
+        return CursorPage.build(this.page(page, wrapper).getRecords(), size,
+                user -> CursorUtils.encode(user.getCreateTime(), user.getId()));
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean createUser(User user) {